@@ -0,0 +1,183 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load-test harness keeping a fixed number of concurrent connections busy against a
+ * running instance of the application, each connection sending its next request as soon
+ * as the previous one completes.
+ *
+ * <p>
+ * To compare the thread modes, start the application once with
+ * {@code SPRING_THREADS_VIRTUAL_ENABLED=false} and once with {@code true}, and run
+ * {@code ./gradlew loadTest} against each. It is configured through environment variables
+ * or system properties: {@code LOAD_TEST_URL} (company page by default, which does
+ * blocking Redis and database reads), {@code LOAD_TEST_TOKEN} (sent as a bearer token),
+ * {@code LOAD_TEST_CONNECTIONS} (5000), {@code LOAD_TEST_WARMUP} and
+ * {@code LOAD_TEST_DURATION} in seconds (10 and 30). The open file limit of both
+ * processes has to exceed the number of connections
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+public final class LoadTestHarness {
+
+	private LoadTestHarness() {
+	}
+
+	public static void main(String[] args) {
+		URI uri = URI.create(getConfigProperty("LOAD_TEST_URL", "http://localhost:9000/api/v1/company/all?size=20"));
+		String token = getConfigProperty("LOAD_TEST_TOKEN", null);
+		int connections = Integer.parseInt(getConfigProperty("LOAD_TEST_CONNECTIONS", "5000"));
+		long warmup = Long.parseLong(getConfigProperty("LOAD_TEST_WARMUP", "10"));
+		long duration = Long.parseLong(getConfigProperty("LOAD_TEST_DURATION", "30"));
+
+		// callbacks are always dispatched to the executor, so a request completing
+		// synchronously does not send the next one on the same stack
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		HttpClient client = HttpClient.newBuilder()
+			.executor(executor)
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+		HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET();
+		if (token != null) {
+			requestBuilder.header("Authorization", "Bearer " + token);
+		}
+		HttpRequest request = requestBuilder.build();
+
+		AtomicBoolean recording = new AtomicBoolean();
+		LongAdder errors = new LongAdder();
+		long end = System.nanoTime() + Duration.ofSeconds(warmup + duration).toNanos();
+		List<Connection> running = new ArrayList<>(connections);
+		for (int i = 0; i < connections; i++) {
+			Connection connection = new Connection(client, executor, request, recording, errors, end);
+			connection.next();
+			running.add(connection);
+		}
+		sleep(Duration.ofSeconds(warmup));
+		recording.set(true);
+		long start = System.nanoTime();
+		CompletableFuture.allOf(running.stream().map(connection -> connection.done).toArray(CompletableFuture[]::new))
+			.join();
+		double seconds = (System.nanoTime() - start) / 1e9;
+		executor.shutdown();
+
+		List<Long> latencies = new ArrayList<>();
+		running.forEach(connection -> latencies.addAll(connection.latencies));
+		latencies.sort(null);
+		System.out.printf("url=%s connections=%d duration=%.1fs%n", uri, connections, seconds);
+		System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n", latencies.size(), errors.sum(),
+				latencies.size() / seconds);
+		System.out.printf("latency p50=%.1fms p99=%.1fms max=%.1fms%n", percentile(latencies, 0.50),
+				percentile(latencies, 0.99), percentile(latencies, 1.0));
+	}
+
+	private static double percentile(List<Long> sortedLatencies, double percentile) {
+		if (sortedLatencies.isEmpty()) {
+			return Double.NaN;
+		}
+		int index = (int) Math.ceil(percentile * sortedLatencies.size()) - 1;
+		return sortedLatencies.get(Math.max(index, 0)) / 1e6;
+	}
+
+	private static void sleep(Duration duration) {
+		try {
+			Thread.sleep(duration.toMillis());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String getConfigProperty(String key, String defaultValue) {
+		String value = System.getenv(key);
+		if (value != null) {
+			return value;
+		}
+		return System.getProperty(key, defaultValue);
+	}
+
+	/**
+	 * Connection sending requests one after another until the end of the run. Only ever
+	 * touched by one request callback at a time
+	 */
+	private static final class Connection {
+
+		private final HttpClient client;
+
+		private final ExecutorService executor;
+
+		private final HttpRequest request;
+
+		private final AtomicBoolean recording;
+
+		private final LongAdder errors;
+
+		private final long end;
+
+		private final List<Long> latencies = new ArrayList<>();
+
+		private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+		private Connection(HttpClient client, ExecutorService executor, HttpRequest request, AtomicBoolean recording,
+				LongAdder errors, long end) {
+			this.client = client;
+			this.executor = executor;
+			this.request = request;
+			this.recording = recording;
+			this.errors = errors;
+			this.end = end;
+		}
+
+		private void next() {
+			long start = System.nanoTime();
+			if (start >= this.end) {
+				this.done.complete(null);
+				return;
+			}
+			this.client.sendAsync(this.request, HttpResponse.BodyHandlers.discarding())
+				.whenCompleteAsync((response, exception) -> {
+					if (this.recording.get()) {
+						if (exception != null || response.statusCode() >= 400) {
+							this.errors.increment();
+						}
+						else {
+							this.latencies.add(System.nanoTime() - start);
+						}
+					}
+					next();
+				}, this.executor);
+		}
+
+	}
+
+}
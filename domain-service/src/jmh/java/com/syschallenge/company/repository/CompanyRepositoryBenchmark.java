@@ -0,0 +1,166 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.company.repository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.conf.Settings;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import com.syschallenge.company.model.Company;
+import com.syschallenge.public_.tables.CompaniesCountTable;
+import com.syschallenge.public_.tables.CompaniesTable;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Cost of a company page request at 1M companies, comparing the former {@code COUNT(*)}
+ * per page with the maintained companies counter and the slice mode.
+ *
+ * <p>
+ * Runs against the PostgreSQL database given by {@code BENCHMARK_DATASOURCE_URL},
+ * {@code BENCHMARK_DATASOURCE_USERNAME} and {@code BENCHMARK_DATASOURCE_PASSWORD}. The
+ * companies are migrated and seeded into a throwaway schema which is dropped after the
+ * trial, so the database is left as it was
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompanyRepositoryBenchmark {
+
+	private static final int COMPANIES = 1_000_000;
+
+	private static final Pageable PAGEABLE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "updatedAt"));
+
+	private String schema;
+
+	private HikariDataSource dataSource;
+
+	private DSLContext ctx;
+
+	private CompanyRepository companyRepository;
+
+	@Setup
+	public void setUp() {
+		this.schema = "benchmark_" + UUID.randomUUID().toString().replace("-", "");
+		this.dataSource = new HikariDataSource();
+		this.dataSource.setJdbcUrl(getRequiredConfigProperty("BENCHMARK_DATASOURCE_URL"));
+		this.dataSource.setUsername(getConfigProperty("BENCHMARK_DATASOURCE_USERNAME", "postgres"));
+		this.dataSource.setPassword(getConfigProperty("BENCHMARK_DATASOURCE_PASSWORD", "postgres"));
+		this.dataSource.setConnectionInitSql("SET search_path TO " + this.schema);
+		Flyway.configure().dataSource(this.dataSource).schemas(this.schema).createSchemas(true).load().migrate();
+		// generated tables are bound to the public schema, resolve them by search path
+		this.ctx = DSL.using(this.dataSource, SQLDialect.POSTGRES, new Settings().withRenderSchema(false));
+		seed();
+		this.companyRepository = new CompanyRepository(this.ctx);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.ctx.dropSchema(this.schema).cascade().execute();
+		this.dataSource.close();
+	}
+
+	/**
+	 * Page request as it was done before: the page query followed by a full count
+	 */
+	@Benchmark
+	public Page<Company> pageWithCountQuery() {
+		List<Company> companies = this.ctx.selectFrom(CompaniesTable.COMPANIES_TABLE)
+			.orderBy(CompaniesTable.COMPANIES_TABLE.UPDATED_AT.desc())
+			.limit(PAGEABLE.getPageSize())
+			.offset(PAGEABLE.getOffset())
+			.fetchInto(Company.class);
+		long total = this.ctx.fetchCount(this.ctx.selectFrom(CompaniesTable.COMPANIES_TABLE));
+		return new PageImpl<>(companies, PAGEABLE, total);
+	}
+
+	/**
+	 * Page request reading the total from the maintained companies counter
+	 */
+	@Benchmark
+	public Page<Company> pageWithMaintainedCount() {
+		return this.companyRepository.findAll(PAGEABLE);
+	}
+
+	/**
+	 * Slice request without any total
+	 */
+	@Benchmark
+	public Slice<Company> slice() {
+		return this.companyRepository.findAllSlice(PAGEABLE);
+	}
+
+	private void seed() {
+		int missing = COMPANIES - this.ctx.fetchCount(CompaniesTable.COMPANIES_TABLE);
+		if (missing <= 0) {
+			return;
+		}
+		this.ctx.execute("INSERT INTO companies_table(slug, name, updated_at) "
+				+ "SELECT 'benchmark-' || gen_random_uuid(), 'Benchmark company', now() - g * interval '1 second' "
+				+ "FROM generate_series(1, ?) g", missing);
+		this.ctx.update(CompaniesCountTable.COMPANIES_COUNT_TABLE)
+			.set(CompaniesCountTable.COMPANIES_COUNT_TABLE.TOTAL,
+					this.ctx.selectCount().from(CompaniesTable.COMPANIES_TABLE).asField().cast(Long.class))
+			.execute();
+		this.ctx.execute("ANALYZE companies_table");
+	}
+
+	private static String getRequiredConfigProperty(String key) {
+		String value = getConfigProperty(key, null);
+		if (value == null) {
+			throw new IllegalStateException(key + " must point to a dedicated benchmark database");
+		}
+		return value;
+	}
+
+	private static String getConfigProperty(String key, String defaultValue) {
+		String value = System.getenv(key);
+		if (value != null) {
+			return value;
+		}
+		return System.getProperty(key, defaultValue);
+	}
+
+}
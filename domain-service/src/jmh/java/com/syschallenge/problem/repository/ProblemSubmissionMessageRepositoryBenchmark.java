@@ -0,0 +1,170 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.conf.Settings;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.syschallenge.problem.model.ProblemSubmissionMessage;
+import com.syschallenge.public_.enums.ProblemDifficulty;
+import com.syschallenge.public_.enums.ProblemSubmissionStatus;
+import com.syschallenge.public_.enums.UserRole;
+import com.syschallenge.public_.tables.ProblemSubmissionsTable;
+import com.syschallenge.public_.tables.ProblemsTable;
+import com.syschallenge.public_.tables.UsersTable;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Latency of loading the chat-history window of a problem submission as the conversation
+ * grows. With the {@code (problem_submission_id, created_at)} index the window is read
+ * from the end of the index, so the latency stays flat instead of growing with the number
+ * of messages to sort.
+ *
+ * <p>
+ * Runs against the PostgreSQL database given by {@code BENCHMARK_DATASOURCE_URL},
+ * {@code BENCHMARK_DATASOURCE_USERNAME} and {@code BENCHMARK_DATASOURCE_PASSWORD}. A
+ * conversation of the benchmarked size is migrated and seeded into a throwaway schema for
+ * every trial, which is dropped after the trial
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProblemSubmissionMessageRepositoryBenchmark {
+
+	private static final int CONTEXT_WINDOW = 20;
+
+	@Param({ "100", "10000", "100000" })
+	private int messages;
+
+	private String schema;
+
+	private HikariDataSource dataSource;
+
+	private DSLContext ctx;
+
+	private ProblemSubmissionMessageRepository problemSubmissionMessageRepository;
+
+	private UUID userId;
+
+	private Integer problemId;
+
+	private UUID problemSubmissionId;
+
+	@Setup
+	public void setUp() {
+		this.schema = "benchmark_" + UUID.randomUUID().toString().replace("-", "");
+		this.dataSource = new HikariDataSource();
+		this.dataSource.setJdbcUrl(getRequiredConfigProperty("BENCHMARK_DATASOURCE_URL"));
+		this.dataSource.setUsername(getConfigProperty("BENCHMARK_DATASOURCE_USERNAME", "postgres"));
+		this.dataSource.setPassword(getConfigProperty("BENCHMARK_DATASOURCE_PASSWORD", "postgres"));
+		this.dataSource.setConnectionInitSql("SET search_path TO " + this.schema);
+		Flyway.configure().dataSource(this.dataSource).schemas(this.schema).createSchemas(true).load().migrate();
+		// generated tables are bound to the public schema, resolve them by search path
+		this.ctx = DSL.using(this.dataSource, SQLDialect.POSTGRES, new Settings().withRenderSchema(false));
+		seed();
+		this.problemSubmissionMessageRepository = new ProblemSubmissionMessageRepository(this.ctx);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.ctx.dropSchema(this.schema).cascade().execute();
+		this.dataSource.close();
+	}
+
+	/**
+	 * Chat-history window of the latest messages, as loaded on every LLM turn
+	 */
+	@Benchmark
+	public List<ProblemSubmissionMessage> latestWindow() {
+		return this.problemSubmissionMessageRepository.findLatestByProblemSubmissionId(this.problemSubmissionId,
+				CONTEXT_WINDOW);
+	}
+
+	private void seed() {
+		this.userId = this.ctx.insertInto(UsersTable.USERS_TABLE)
+			.set(UsersTable.USERS_TABLE.USERNAME, "benchmark")
+			.set(UsersTable.USERS_TABLE.EMAIL, "benchmark-" + UUID.randomUUID() + "@syschallenge.com")
+			.set(UsersTable.USERS_TABLE.ROLE, UserRole.DEFAULT)
+			.set(UsersTable.USERS_TABLE.REGISTERED_AT, LocalDateTime.now())
+			.returningResult(UsersTable.USERS_TABLE.ID)
+			.fetchOne()
+			.value1();
+		this.problemId = this.ctx.insertInto(ProblemsTable.PROBLEMS_TABLE)
+			.set(ProblemsTable.PROBLEMS_TABLE.TITLE, "Benchmark problem")
+			.set(ProblemsTable.PROBLEMS_TABLE.DIFFICULTY, ProblemDifficulty.EASY)
+			.set(ProblemsTable.PROBLEMS_TABLE.DESCRIPTION, "Benchmark problem")
+			.returningResult(ProblemsTable.PROBLEMS_TABLE.ID)
+			.fetchOne()
+			.value1();
+		this.problemSubmissionId = this.ctx.insertInto(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE)
+			.set(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.USER_ID, this.userId)
+			.set(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.PROBLEM_ID, this.problemId)
+			.set(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.STATUS, ProblemSubmissionStatus.PROCESSED)
+			.set(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.CREATED_AT, LocalDateTime.now())
+			.returningResult(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.ID)
+			.fetchOne()
+			.value1();
+		this.ctx.execute("INSERT INTO problem_submission_messages_table(problem_submission_id, side, text, created_at) "
+				+ "SELECT ?, CASE WHEN g % 2 = 0 THEN 'USER' ELSE 'ASSISTANT' END::problem_submission_message_side, "
+				+ "repeat('message ', 40), now() - g * interval '1 second' FROM generate_series(1, ?) g",
+				this.problemSubmissionId, this.messages);
+		this.ctx.execute("ANALYZE problem_submission_messages_table");
+	}
+
+	private static String getRequiredConfigProperty(String key) {
+		String value = getConfigProperty(key, null);
+		if (value == null) {
+			throw new IllegalStateException(key + " must point to a dedicated benchmark database");
+		}
+		return value;
+	}
+
+	private static String getConfigProperty(String key, String defaultValue) {
+		String value = System.getenv(key);
+		if (value != null) {
+			return value;
+		}
+		return System.getProperty(key, defaultValue);
+	}
+
+}
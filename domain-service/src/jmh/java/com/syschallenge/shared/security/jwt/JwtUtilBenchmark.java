@@ -0,0 +1,112 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.syschallenge.shared.security.UserDetails;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Per-request cost of JWT validation, comparing the former three-parse pipeline of
+ * {@link JwtAuthFilter} with the single-parse {@link JwtUtil#verifyToken(String)}
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+	private static final String SECRET = "Z3dlZ2VHR0dHRVdnd2Vhc2Rhc2RzYWRhc2Rhc2RzYWQ=";
+
+	private JwtUtil jwtUtil;
+
+	private String token;
+
+	@Setup
+	public void setUp() {
+		this.jwtUtil = new JwtUtil(SECRET);
+		this.token = this.jwtUtil.generateToken(new UserDetails(UUID.randomUUID(), List.of()));
+	}
+
+	/**
+	 * Validation as it was done before: signature check, expiration check and subject
+	 * extraction, each decoding the secret and building a new parser
+	 */
+	@Benchmark
+	public String threeParses() {
+		if (isTokenValid(this.token) && !extractAllClaims(this.token).getExpiration().before(new Date())) {
+			return extractAllClaims(this.token).getSubject();
+		}
+		return null;
+	}
+
+	/**
+	 * Validation with a single parse on the key and parser created at startup
+	 */
+	@Benchmark
+	public String singleParse() {
+		VerifiedJwt verifiedJwt = this.jwtUtil.verifyToken(this.token);
+		return verifiedJwt != null ? verifiedJwt.subject() : null;
+	}
+
+	private static boolean isTokenValid(String token) {
+		try {
+			extractAllClaims(token);
+			return true;
+		}
+		catch (Exception ignored) {
+			return false;
+		}
+	}
+
+	private static Claims extractAllClaims(String token) {
+		return Jwts.parser().verifyWith(getSignInKey()).build().parseSignedClaims(token).getPayload();
+	}
+
+	private static SecretKey getSignInKey() {
+		byte[] bytes = Base64.getDecoder().decode(SECRET.getBytes(StandardCharsets.UTF_8));
+		return new SecretKeySpec(bytes, "HmacSHA256");
+	}
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.util;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.coobird.thumbnailator.Thumbnails;
+
+/**
+ * Throughput of resizing uploaded user photos to 200x200 and to all the avatar variants,
+ * for PNG and JPEG inputs of the sizes of a social avatar, a screenshot and a phone
+ * camera photo. The inputs are gradients with noise, which compress similarly to photos
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThumbnailUtilBenchmark {
+
+	private static final List<Integer> VARIANT_SIZES = List.of(48, 96, 200, 400);
+
+	@Param({ "460x460", "1920x1080", "4032x3024" })
+	private String dimensions;
+
+	@Param({ "png", "jpg" })
+	private String format;
+
+	private byte[] photo;
+
+	@Setup
+	public void setUp() throws IOException {
+		int width = Integer.parseInt(this.dimensions.substring(0, this.dimensions.indexOf('x')));
+		int height = Integer.parseInt(this.dimensions.substring(this.dimensions.indexOf('x') + 1));
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Random random = new Random(42);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int noise = random.nextInt(32);
+				int red = Math.min(255, x * 224 / width + noise);
+				int green = Math.min(255, y * 224 / height + noise);
+				int blue = Math.min(255, (x + y) * 112 / (width + height) + noise);
+				image.setRGB(x, y, (red << 16) | (green << 8) | blue);
+			}
+		}
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(image, this.format, outputStream);
+		this.photo = outputStream.toByteArray();
+	}
+
+	/**
+	 * Resize as it was done before: Thumbnailator into a {@link BufferedImage}, encoded
+	 * separately with {@link ImageIO}
+	 */
+	@Benchmark
+	public byte[] resizeViaBufferedImage() throws IOException {
+		BufferedImage resizedImage = Thumbnails.of(new ByteArrayInputStream(this.photo))
+			.size(200, 200)
+			.outputFormat(this.format)
+			.asBufferedImage();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(resizedImage, this.format, outputStream);
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Resize on a single thread
+	 */
+	@Benchmark
+	public byte[] resizeOnSingleThread() {
+		return resize(200);
+	}
+
+	/**
+	 * Resize on one thread per available processor, as many as the photo processing
+	 * executor has workers
+	 */
+	@Benchmark
+	@Threads(Threads.MAX)
+	public byte[] resizeOnAllProcessors() {
+		return resize(200);
+	}
+
+	/**
+	 * All the avatar variants, decoding the photo again for each of them
+	 */
+	@Benchmark
+	public List<byte[]> variantsDecodingEach() {
+		List<byte[]> variants = new ArrayList<>();
+		for (int size : VARIANT_SIZES) {
+			variants.add(resize(size));
+		}
+		return variants;
+	}
+
+	/**
+	 * All the avatar variants from a single decode, each scaled from the next larger one
+	 */
+	@Benchmark
+	public List<byte[]> variantsDecodingOnce() {
+		List<byte[]> variants = new ArrayList<>();
+		ThumbnailUtil.resize(this.photo, VARIANT_SIZES)
+			.values()
+			.forEach(variant -> variants.add(ThumbnailUtil.encode(variant, this.format)));
+		return variants;
+	}
+
+	/**
+	 * Resizes the photo with Thumbnailator straight into its encoded form
+	 */
+	private byte[] resize(int size) {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			Thumbnails.of(new ByteArrayInputStream(this.photo))
+				.size(size, size)
+				.outputFormat(this.format)
+				.toOutputStream(outputStream);
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return outputStream.toByteArray();
+	}
+
+}
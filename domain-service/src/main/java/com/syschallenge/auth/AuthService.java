@@ -16,11 +16,13 @@
 
 package com.syschallenge.auth;
 
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import com.syschallenge.auth.model.Me;
 import com.syschallenge.auth.payload.response.AuthResponse;
@@ -29,10 +31,14 @@ import com.syschallenge.oauth.OAuthType;
 import com.syschallenge.oauth.OAuthUserInfo;
 import com.syschallenge.shared.security.UserDetails;
 import com.syschallenge.shared.security.jwt.JwtUtil;
-import com.syschallenge.shared.util.ImageDownloaderUtil;
 import com.syschallenge.user.model.User;
-import com.syschallenge.user.service.UserBasicInfoService;
+import com.syschallenge.user.model.UserProfile;
+import com.syschallenge.user.model.UserRole;
 import com.syschallenge.user.service.UserLinkedSocialService;
+import com.syschallenge.user.service.UserPhotoImportService;
+import com.syschallenge.user.service.UserProfileService;
+import com.syschallenge.user.service.UserRoleEpochService;
+import com.syschallenge.user.service.UserRoleService;
 import com.syschallenge.user.service.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -53,42 +59,77 @@ public class AuthService {
 
 	private final UserLinkedSocialService userLinkedSocialService;
 
-	private final UserBasicInfoService userBasicInfoService;
+	private final UserProfileService userProfileService;
+
+	private final UserRoleEpochService userRoleEpochService;
+
+	private final UserRoleService userRoleService;
 
 	private final JwtUtil jwtUtil;
 
-	private final ImageDownloaderUtil imageDownloaderUtil;
+	private final UserPhotoImportService userPhotoImportService;
+
+	private final TransactionOperations transactionOperations;
 
 	/**
-	 * Authenticates a user through OAuth using an authorization code
+	 * Authenticates a user through OAuth using an authorization code. The code exchange
+	 * and the profile fetch are done before any database work. A returning user is
+	 * resolved through the cached social account link and role, and the rows of a new
+	 * user are written in a short transaction of their own. The profile photo of a new
+	 * user is imported in the background once the user is committed, so the token is
+	 * returned as soon as the user rows exist
 	 * @param type social type for OAuth
 	 * @param code authorization code provided by OAuth
 	 * @return response containing the authentication response with the JWT token
 	 */
-	@Transactional(isolation = Isolation.READ_COMMITTED)
 	public AuthResponse authBySocial(OAuthType type, String code) {
 		OAuthUserInfo userInfo = this.providerFactory.getProvider(type).extractUser(code);
-		if (this.userLinkedSocialService.existsByVerification(userInfo.providerUserId())) {
-			UUID userId = this.userLinkedSocialService.getUserIdByVerification(userInfo.providerUserId());
-			User currentUser = this.userService.getById(userId);
-			String jwtToken = this.jwtUtil.generateToken(new UserDetails(currentUser.getId(), null));
-			return new AuthResponse(jwtToken);
+		UUID userId = this.userLinkedSocialService.getUserIdByVerification(type, userInfo.providerUserId());
+		if (userId != null) {
+			return new AuthResponse(generateToken(userId, this.userRoleService.getRole(userId)));
 		}
 		else {
-			User newUser = this.userService.create(userInfo);
+			User newUser;
+			try {
+				newUser = this.transactionOperations.execute(status -> {
+					User createdUser = this.userService.create(userInfo);
+					this.userLinkedSocialService.create(createdUser.getId(), type, userInfo.providerUserId());
+					return createdUser;
+				});
+			}
+			catch (DuplicateKeyException e) {
+				// a concurrent first sign-in of the same account linked it first, any
+				// other unique violation, such as a taken email, is not ours to resolve
+				UUID linkedUserId = this.userLinkedSocialService.getUserIdByVerification(type,
+						userInfo.providerUserId());
+				if (linkedUserId == null) {
+					throw e;
+				}
+				return new AuthResponse(generateToken(linkedUserId, this.userRoleService.getRole(linkedUserId)));
+			}
 			if (userInfo.photo() != null) {
-				this.userService.uploadPhoto(newUser.getId(), imageDownloaderUtil.download(userInfo.photo()),
-						newUser.getId());
+				this.userPhotoImportService.importPhoto(newUser.getId(), userInfo.photo());
 			}
-			this.userLinkedSocialService.create(newUser.getId(), type, userInfo.providerUserId());
-			String jwtToken = this.jwtUtil.generateToken(new UserDetails(newUser.getId(), null));
-			return new AuthResponse(jwtToken);
+			return new AuthResponse(generateToken(newUser.getId(), newUser.getRole()));
 		}
 	}
 
+	private String generateToken(UUID userId, UserRole role) {
+		return this.jwtUtil.generateToken(new UserDetails(userId, List.of(new SimpleGrantedAuthority(role.name()))),
+				this.userRoleEpochService.getEpoch(userId));
+	}
+
+	/**
+	 * Gets the basic information about the authenticated user from the cached profile
+	 * @param principalUserId the ID of the authenticated user
+	 * @return basic information about the user
+	 */
 	public Me me(UUID principalUserId) {
-		return new Me(principalUserId, this.userService.getUsernameById(principalUserId),
-				this.userBasicInfoService.getNameByUserId(principalUserId));
+		UserProfile profile = this.userProfileService.getProfile(principalUserId);
+		if (profile == null) {
+			return new Me(principalUserId, null, null, null);
+		}
+		return new Me(principalUserId, profile.username(), profile.name(), profile.photoObjectKey());
 	}
 
 }
@@ -24,5 +24,5 @@ import java.util.UUID;
  * @author therepanic
  * @since 1.0.0
  */
-public record Me(UUID id, String username, String name) {
+public record Me(UUID id, String username, String name, String photoObjectKey) {
 }
@@ -24,6 +24,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.syschallenge.company.exception.CompanyAlreadyExistsException;
+import com.syschallenge.company.exception.InvalidCursorException;
+import com.syschallenge.company.exception.InvalidPageSizeException;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -49,4 +51,30 @@ public class CompanyExceptionHandler {
 				Map.entry("path", request.getServletPath()));
 	}
 
+	/**
+	 * Handles exceptions thrown when a malformed pagination cursor is received
+	 * @param exception the exception thrown when a cursor cannot be decoded
+	 * @return a standardized error response with HTTP status 400 (Bad Request)
+	 */
+	@ExceptionHandler(InvalidCursorException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public Map<String, Object> handleInvalidCursorException(HttpServletRequest request,
+			InvalidCursorException exception) {
+		return Map.ofEntries(Map.entry("error", "Bad Request"), Map.entry("message", exception.getMessage()),
+				Map.entry("path", request.getServletPath()));
+	}
+
+	/**
+	 * Handles exceptions thrown when a page size out of the allowed range is received
+	 * @param exception the exception thrown when a page size is out of range
+	 * @return a standardized error response with HTTP status 400 (Bad Request)
+	 */
+	@ExceptionHandler(InvalidPageSizeException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public Map<String, Object> handleInvalidPageSizeException(HttpServletRequest request,
+			InvalidPageSizeException exception) {
+		return Map.ofEntries(Map.entry("error", "Bad Request"), Map.entry("message", exception.getMessage()),
+				Map.entry("path", request.getServletPath()));
+	}
+
 }
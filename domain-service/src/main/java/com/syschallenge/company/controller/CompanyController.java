@@ -19,6 +19,7 @@ package com.syschallenge.company.controller;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -30,10 +31,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.syschallenge.company.dto.CompanyDto;
 import com.syschallenge.company.payload.request.CreateCompanyRequest;
 import com.syschallenge.company.payload.request.UpdateCompanyRequest;
+import com.syschallenge.company.payload.response.CompanyCursorPageResponse;
 import com.syschallenge.company.service.CompanyService;
 
 import lombok.RequiredArgsConstructor;
@@ -56,21 +59,70 @@ public class CompanyController {
 	 * @param page the page number (default is 0)
 	 * @param size the number of items per page (default is 20)
 	 * @param sort the sorting order (default is descending)
-	 * @return a paginated list of companies
+	 * @param request the current request, checked against the companies entity tag
+	 * @return a paginated list of companies or null if the client copy is up to date
 	 */
 	@GetMapping("/all")
 	public Page<CompanyDto> getAll(@RequestParam(defaultValue = "0") int page,
-			@RequestParam(defaultValue = "20") int size, @RequestParam(defaultValue = "desc") String sort) {
+			@RequestParam(defaultValue = "20") int size, @RequestParam(defaultValue = "desc") String sort,
+			WebRequest request) {
+		if (request.checkNotModified(this.companyService.getETag())) {
+			return null;
+		}
 		return this.companyService.getAll(page, size, sort);
 	}
 
+	/**
+	 * Endpoint for retrieving a slice of companies without the total number of companies.
+	 * Selected with {@code total=false}
+	 * @param page the page number (default is 0)
+	 * @param size the number of items per page (default is 20)
+	 * @param sort the sorting order (default is descending)
+	 * @param request the current request, checked against the companies entity tag
+	 * @return a slice of companies or null if the client copy is up to date
+	 */
+	@GetMapping(value = "/all", params = { "total=false", "!cursor" })
+	public Slice<CompanyDto> getAllSlice(@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "20") int size, @RequestParam(defaultValue = "desc") String sort,
+			WebRequest request) {
+		if (request.checkNotModified(this.companyService.getETag())) {
+			return null;
+		}
+		return this.companyService.getAllSlice(page, size, sort);
+	}
+
+	/**
+	 * Endpoint for retrieving a cursor-paginated list of companies. Selected when the
+	 * {@code cursor} parameter is present; pass it empty to get the first page
+	 * @param cursor the cursor returned with the previous page
+	 * @param size the number of items per page (default is 20)
+	 * @param sort the sorting order (default is descending)
+	 * @param request the current request, checked against the companies entity tag
+	 * @return a page of companies with the cursor of the next page or null if the client
+	 * copy is up to date
+	 */
+	@GetMapping(value = "/all", params = "cursor")
+	public CompanyCursorPageResponse getAllByCursor(@RequestParam("cursor") String cursor,
+			@RequestParam(defaultValue = "20") int size, @RequestParam(defaultValue = "desc") String sort,
+			WebRequest request) {
+		if (request.checkNotModified(this.companyService.getETag())) {
+			return null;
+		}
+		return this.companyService.getAllByCursor(cursor, size, sort);
+	}
+
 	/**
 	 * Endpoint for retrieving company information by ID
 	 * @param id the UUID of the company
-	 * @return the retrieved company DTO with persisted data
+	 * @param request the current request, checked against the companies entity tag
+	 * @return the retrieved company DTO with persisted data or null if the client copy is
+	 * up to date
 	 */
 	@GetMapping("/{id}")
-	public CompanyDto get(@PathVariable("id") UUID id) {
+	public CompanyDto get(@PathVariable("id") UUID id, WebRequest request) {
+		if (request.checkNotModified(this.companyService.getETag())) {
+			return null;
+		}
 		return this.companyService.get(id);
 	}
 
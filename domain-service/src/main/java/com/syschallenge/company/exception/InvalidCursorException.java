@@ -14,7 +14,12 @@
  * limitations under the License.
  */
 
-package com.syschallenge.user.payload.response;
+package com.syschallenge.company.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+	public InvalidCursorException(String message) {
+		super(message);
+	}
 
-public record PhotoResponse(byte[] photo, String photoFileName) {
 }
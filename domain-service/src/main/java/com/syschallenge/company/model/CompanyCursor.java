@@ -0,0 +1,74 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.company.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.syschallenge.company.exception.InvalidCursorException;
+
+/**
+ * Position of a company in the keyset pagination ordered by {@code (updated_at, id)}
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+public record CompanyCursor(LocalDateTime updatedAt, UUID id) {
+
+	private static final String SEPARATOR = "|";
+
+	/**
+	 * Creates a cursor pointing at the given company
+	 * @param company company to point at
+	 * @return cursor positioned at the company
+	 */
+	public static CompanyCursor of(Company company) {
+		return new CompanyCursor(company.getUpdatedAt(), company.getId());
+	}
+
+	/**
+	 * Decodes an opaque cursor received from a client
+	 * @param cursor opaque cursor
+	 * @return decoded cursor
+	 * @throws InvalidCursorException if the cursor is malformed
+	 */
+	public static CompanyCursor decode(String cursor) throws InvalidCursorException {
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separatorIndex = decoded.indexOf(SEPARATOR);
+			return new CompanyCursor(LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+					UUID.fromString(decoded.substring(separatorIndex + 1)));
+		}
+		catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+			throw new InvalidCursorException("Invalid cursor '" + cursor + "'");
+		}
+	}
+
+	/**
+	 * Encodes the cursor into an opaque string for clients
+	 * @return opaque cursor
+	 */
+	public String encode() {
+		return Base64.getUrlEncoder()
+			.withoutPadding()
+			.encodeToString((this.updatedAt + SEPARATOR + this.id).getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -21,14 +21,21 @@ import java.util.List;
 import java.util.UUID;
 
 import org.jooq.DSLContext;
+import org.jooq.SelectSeekStep2;
 import org.jooq.SortField;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 
 import com.syschallenge.company.model.Company;
+import com.syschallenge.company.model.CompanyCursor;
+import com.syschallenge.public_.tables.CompaniesCountTable;
 import com.syschallenge.public_.tables.CompaniesTable;
+import com.syschallenge.public_.tables.records.CompaniesTableRecord;
 
 import lombok.RequiredArgsConstructor;
 
@@ -42,6 +49,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class CompanyRepository {
 
+	private static final short COUNTER_ID = 1;
+
 	private final DSLContext ctx;
 
 	/**
@@ -50,12 +59,14 @@ public class CompanyRepository {
 	 * @return company entity with updated information
 	 */
 	public Company save(Company company) {
-		return this.ctx.insertInto(CompaniesTable.COMPANIES_TABLE)
+		Company saved = this.ctx.insertInto(CompaniesTable.COMPANIES_TABLE)
 			.set(CompaniesTable.COMPANIES_TABLE.NAME, company.getName())
 			.set(CompaniesTable.COMPANIES_TABLE.SLUG, company.getSlug())
 			.set(CompaniesTable.COMPANIES_TABLE.UPDATED_AT, company.getUpdatedAt())
 			.returningResult(CompaniesTable.COMPANIES_TABLE)
 			.fetchOneInto(Company.class);
+		adjustCount(1);
+		return saved;
 	}
 
 	/**
@@ -74,24 +85,66 @@ public class CompanyRepository {
 	}
 
 	/**
-	 * Finds all companies with pagination
+	 * Finds all companies with pagination. The total is read from the maintained
+	 * companies counter instead of counting the table
 	 * @param pageable pagination parameters
 	 * @return paginated list of companies
 	 */
 	public Page<Company> findAll(Pageable pageable) {
-		List<SortField<LocalDateTime>> orderBy = pageable.getSort()
-			.stream()
-			.map(order -> order.isAscending()
-					? CompaniesTable.COMPANIES_TABLE.field(CompaniesTable.COMPANIES_TABLE.UPDATED_AT).asc()
-					: CompaniesTable.COMPANIES_TABLE.field(CompaniesTable.COMPANIES_TABLE.UPDATED_AT).desc())
-			.toList();
 		List<Company> companies = this.ctx.selectFrom(CompaniesTable.COMPANIES_TABLE)
-			.orderBy(orderBy)
+			.orderBy(toOrderBy(pageable))
 			.limit(pageable.getPageSize())
 			.offset(pageable.getOffset())
 			.fetchInto(Company.class);
-		long total = this.ctx.fetchCount(this.ctx.selectFrom(CompaniesTable.COMPANIES_TABLE));
-		return new PageImpl<>(companies, pageable, total);
+		return new PageImpl<>(companies, pageable, count());
+	}
+
+	/**
+	 * Finds all companies with pagination without computing the total
+	 * @param pageable pagination parameters
+	 * @return slice of companies knowing only whether a next slice exists
+	 */
+	public Slice<Company> findAllSlice(Pageable pageable) {
+		// fetch one extra company to know whether there is a next slice
+		List<Company> companies = this.ctx.selectFrom(CompaniesTable.COMPANIES_TABLE)
+			.orderBy(toOrderBy(pageable))
+			.limit(pageable.getPageSize() + 1)
+			.offset(pageable.getOffset())
+			.fetchInto(Company.class);
+		boolean hasNext = companies.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? companies.subList(0, pageable.getPageSize()) : companies, pageable, hasNext);
+	}
+
+	/**
+	 * Gets the total number of companies from the maintained companies counter
+	 * @return number of companies
+	 */
+	public long count() {
+		return this.ctx.select(CompaniesCountTable.COMPANIES_COUNT_TABLE.TOTAL)
+			.from(CompaniesCountTable.COMPANIES_COUNT_TABLE)
+			.where(CompaniesCountTable.COMPANIES_COUNT_TABLE.ID.eq(COUNTER_ID))
+			.fetchSingleInto(Long.class);
+	}
+
+	/**
+	 * Finds companies following a cursor in the keyset order of update date and id
+	 * @param cursor position to continue after or null to start from the first company
+	 * @param limit maximum number of companies to return
+	 * @param direction sort direction of the keyset
+	 * @return list of companies following the cursor
+	 */
+	public List<Company> findAllAfter(CompanyCursor cursor, int limit, Sort.Direction direction) {
+		SortField<LocalDateTime> updatedAtOrder = direction.isAscending()
+				? CompaniesTable.COMPANIES_TABLE.UPDATED_AT.asc() : CompaniesTable.COMPANIES_TABLE.UPDATED_AT.desc();
+		SortField<UUID> idOrder = direction.isAscending() ? CompaniesTable.COMPANIES_TABLE.ID.asc()
+				: CompaniesTable.COMPANIES_TABLE.ID.desc();
+		SelectSeekStep2<CompaniesTableRecord, LocalDateTime, UUID> ordered = this.ctx
+			.selectFrom(CompaniesTable.COMPANIES_TABLE)
+			.orderBy(updatedAtOrder, idOrder);
+		if (cursor == null) {
+			return ordered.limit(limit).fetchInto(Company.class);
+		}
+		return ordered.seek(cursor.updatedAt(), cursor.id()).limit(limit).fetchInto(Company.class);
 	}
 
 	/**
@@ -121,7 +174,12 @@ public class CompanyRepository {
 	 * @param id company id to search for
 	 */
 	public void deleteById(UUID id) {
-		this.ctx.deleteFrom(CompaniesTable.COMPANIES_TABLE).where(CompaniesTable.COMPANIES_TABLE.ID.eq(id)).execute();
+		int deleted = this.ctx.deleteFrom(CompaniesTable.COMPANIES_TABLE)
+			.where(CompaniesTable.COMPANIES_TABLE.ID.eq(id))
+			.execute();
+		if (deleted > 0) {
+			adjustCount(-deleted);
+		}
 	}
 
 	/**
@@ -135,4 +193,21 @@ public class CompanyRepository {
 			.where(CompaniesTable.COMPANIES_TABLE.SLUG.eq(slug)));
 	}
 
+	private List<SortField<LocalDateTime>> toOrderBy(Pageable pageable) {
+		return pageable.getSort()
+			.stream()
+			.map(order -> order.isAscending()
+					? CompaniesTable.COMPANIES_TABLE.field(CompaniesTable.COMPANIES_TABLE.UPDATED_AT).asc()
+					: CompaniesTable.COMPANIES_TABLE.field(CompaniesTable.COMPANIES_TABLE.UPDATED_AT).desc())
+			.toList();
+	}
+
+	private void adjustCount(int delta) {
+		this.ctx.update(CompaniesCountTable.COMPANIES_COUNT_TABLE)
+			.set(CompaniesCountTable.COMPANIES_COUNT_TABLE.TOTAL,
+					CompaniesCountTable.COMPANIES_COUNT_TABLE.TOTAL.plus(delta))
+			.where(CompaniesCountTable.COMPANIES_COUNT_TABLE.ID.eq(COUNTER_ID))
+			.execute();
+	}
+
 }
@@ -17,10 +17,12 @@
 package com.syschallenge.company.service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -28,11 +30,17 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.syschallenge.company.dto.CompanyDto;
 import com.syschallenge.company.exception.CompanyAlreadyExistsException;
+import com.syschallenge.company.exception.InvalidCursorException;
+import com.syschallenge.company.exception.InvalidPageSizeException;
 import com.syschallenge.company.mapper.CompanyToCompanyDtoMapper;
 import com.syschallenge.company.model.Company;
+import com.syschallenge.company.model.CompanyCursor;
 import com.syschallenge.company.payload.request.CreateCompanyRequest;
 import com.syschallenge.company.payload.request.UpdateCompanyRequest;
+import com.syschallenge.company.payload.response.CompanyCursorPageResponse;
 import com.syschallenge.company.repository.CompanyRepository;
+import com.syschallenge.shared.service.VersionService;
+import com.syschallenge.shared.util.TransactionUtil;
 
 import lombok.RequiredArgsConstructor;
 
@@ -46,12 +54,28 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class CompanyService {
 
+	private static final String VERSION_NAME = "companies";
+
+	private static final int MAX_PAGE_SIZE = 100;
+
 	private final CompanyRepository companyRepository;
 
 	private final CompanyToCompanyDtoMapper companyToCompanyDtoMapper;
 
+	private final VersionService versionService;
+
+	/**
+	 * Get the entity tag of the current companies version. It must be taken before
+	 * companies are read, so a response is never labelled newer than its content
+	 * @return entity tag identifying the current companies version
+	 */
+	public String getETag() {
+		return VERSION_NAME + "-" + this.versionService.getVersion(VERSION_NAME);
+	}
+
 	/**
-	 * Get paginated list of companies
+	 * Get paginated list of companies. The page size is not bounded here, to keep the
+	 * contract of existing offset callers
 	 * @param page the page number
 	 * @param size the number of items per page
 	 * @return a paginated list of company DTOs
@@ -62,6 +86,46 @@ public class CompanyService {
 			.map(this.companyToCompanyDtoMapper::companyToCompanyDto);
 	}
 
+	/**
+	 * Get a slice of companies without computing the total number of companies
+	 * @param page the page number
+	 * @param size the number of items per page
+	 * @param sort the sorting order
+	 * @return a slice of company DTOs
+	 * @throws InvalidPageSizeException if the size is out of range
+	 */
+	public Slice<CompanyDto> getAllSlice(int page, int size, String sort) throws InvalidPageSizeException {
+		validatePageSize(size);
+		return this.companyRepository
+			.findAllSlice(PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sort), "updatedAt")))
+			.map(this.companyToCompanyDtoMapper::companyToCompanyDto);
+	}
+
+	/**
+	 * Get a cursor-paginated list of companies, ordered by update date and id
+	 * @param cursor opaque cursor returned with the previous page or null for the first
+	 * page
+	 * @param size the number of items per page
+	 * @param sort the sorting order
+	 * @return a page of company DTOs with the cursor of the next page
+	 * @throws InvalidCursorException if the cursor is malformed
+	 * @throws InvalidPageSizeException if the size is out of range
+	 */
+	public CompanyCursorPageResponse getAllByCursor(String cursor, int size, String sort)
+			throws InvalidCursorException, InvalidPageSizeException {
+		validatePageSize(size);
+		CompanyCursor after = (cursor == null || cursor.isBlank()) ? null : CompanyCursor.decode(cursor);
+		// fetch one extra company to know whether there is a next page
+		List<Company> companies = this.companyRepository.findAllAfter(after, size + 1, Sort.Direction.fromString(sort));
+		String nextCursor = null;
+		if (companies.size() > size) {
+			companies = companies.subList(0, size);
+			nextCursor = CompanyCursor.of(companies.get(size - 1)).encode();
+		}
+		return new CompanyCursorPageResponse(
+				companies.stream().map(this.companyToCompanyDtoMapper::companyToCompanyDto).toList(), nextCursor);
+	}
+
 	/**
 	 * Get a company details
 	 * @param id the company id whose company is being got
@@ -90,6 +154,7 @@ public class CompanyService {
 		if (this.companyRepository.existsBySlug(request.slug())) {
 			throw new CompanyAlreadyExistsException("Company with slug '" + request.slug() + "' already exists");
 		}
+		TransactionUtil.afterCommit(this::onCompaniesChanged);
 		return this.companyToCompanyDtoMapper.companyToCompanyDto(this.companyRepository
 			.save(Company.builder().slug(request.slug()).name(request.name()).updatedAt(LocalDateTime.now()).build()));
 	}
@@ -102,6 +167,7 @@ public class CompanyService {
 	 */
 	@Transactional(isolation = Isolation.READ_COMMITTED)
 	public CompanyDto update(UUID id, UpdateCompanyRequest request) {
+		TransactionUtil.afterCommit(this::onCompaniesChanged);
 		return this.companyToCompanyDtoMapper.companyToCompanyDto(this.companyRepository.update(Company.builder()
 			.id(id)
 			.name(request.name())
@@ -117,6 +183,17 @@ public class CompanyService {
 	@Transactional(isolation = Isolation.READ_COMMITTED)
 	public void delete(UUID id) {
 		this.companyRepository.deleteById(id);
+		TransactionUtil.afterCommit(this::onCompaniesChanged);
+	}
+
+	private void onCompaniesChanged() {
+		this.versionService.bumpVersion(VERSION_NAME);
+	}
+
+	private static void validatePageSize(int size) throws InvalidPageSizeException {
+		if (size < 1 || size > MAX_PAGE_SIZE) {
+			throw new InvalidPageSizeException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+		}
 	}
 
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.syschallenge.problem.exception.ProblemSubmissionAlreadySubmittedException;
+import com.syschallenge.problem.exception.ProblemSubmissionNotFoundException;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Problem exception handler for handling problem-kind exceptions
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@RestControllerAdvice
+public class ProblemExceptionHandler {
+
+	/**
+	 * Handles exceptions thrown when a problem submission does not exist
+	 * @param exception the exception thrown when a problem submission is not found
+	 * @return a standardized error response with HTTP status 404 (Not Found)
+	 */
+	@ExceptionHandler(ProblemSubmissionNotFoundException.class)
+	@ResponseStatus(HttpStatus.NOT_FOUND)
+	public Map<String, Object> handleProblemSubmissionNotFoundException(HttpServletRequest request,
+			ProblemSubmissionNotFoundException exception) {
+		return Map.ofEntries(Map.entry("error", "Not Found"), Map.entry("message", exception.getMessage()),
+				Map.entry("path", request.getServletPath()));
+	}
+
+	/**
+	 * Handles exceptions thrown when a problem submission is already submitted
+	 * @param exception the exception thrown when a problem submission is already
+	 * submitted
+	 * @return a standardized error response with HTTP status 409 (Conflict)
+	 */
+	@ExceptionHandler(ProblemSubmissionAlreadySubmittedException.class)
+	@ResponseStatus(HttpStatus.CONFLICT)
+	public Map<String, Object> handleProblemSubmissionAlreadySubmittedException(HttpServletRequest request,
+			ProblemSubmissionAlreadySubmittedException exception) {
+		return Map.ofEntries(Map.entry("error", "Conflict"), Map.entry("message", exception.getMessage()),
+				Map.entry("path", request.getServletPath()));
+	}
+
+}
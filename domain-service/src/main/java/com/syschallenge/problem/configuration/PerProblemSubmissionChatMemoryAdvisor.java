@@ -16,52 +16,61 @@
 
 package com.syschallenge.problem.configuration;
 
-import com.syschallenge.problem.model.ProblemSubmissionMessage;
-import com.syschallenge.problem.model.ProblemSubmissionMessageSide;
-import com.syschallenge.problem.repository.ProblemSubmissionMessageRepository;
+import com.syschallenge.problem.model.ProblemSubmissionSummarySnapshot;
+import com.syschallenge.problem.service.ProblemSubmissionConversationService;
+import com.syschallenge.problem.service.ProblemSubmissionSummaryService;
+import com.syschallenge.problem.util.TokenEstimatorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.chat.client.ChatClientRequest;
 import org.springframework.ai.chat.client.ChatClientResponse;
 import org.springframework.ai.chat.client.advisor.api.*;
-import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.messages.SystemMessage;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Chat memory advisor filling every prompt of a problem submission with its summary and
+ * the messages created after it, packed into the context token budget
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
 @RequiredArgsConstructor
 public class PerProblemSubmissionChatMemoryAdvisor implements BaseAdvisor {
 
-	private final int contextWindow;
+	private static final String SUMMARY_PREFIX = "Summary of the earlier conversation:\n";
+
+	private final int contextTokenBudget;
+
+	private final ProblemSubmissionConversationService problemSubmissionConversationService;
 
-	private final ProblemSubmissionMessageRepository problemSubmissionMessageRepository;
+	private final ProblemSubmissionSummaryService problemSubmissionSummaryService;
 
 	@Override
 	public ChatClientRequest before(ChatClientRequest chatClientRequest, AdvisorChain advisorChain) {
 		UUID problemSubmissionMessageId = (UUID) chatClientRequest.context().get("problemSubmissionMessageId");
-		List<ProblemSubmissionMessage> history = this.problemSubmissionMessageRepository
-			.findByProblemSubmissionIdOrderByCreatedAtAsc(problemSubmissionMessageId, this.contextWindow);
-		// since we will receive messages from the newest to the oldest, we need to
-		// reverse them
-		Collections.reverse(history);
 		List<Message> historyMessages = new ArrayList<>(List.of(chatClientRequest.prompt().getSystemMessage()));
-		historyMessages.addAll(history.stream().map(msg -> {
-			if (msg.getSide().equals(ProblemSubmissionMessageSide.USER)) {
-				return new UserMessage(msg.getText());
-			}
-			else if (msg.getSide().equals(ProblemSubmissionMessageSide.ASSISTANT)) {
-				return new AssistantMessage(msg.getText());
-			}
-			else {
-				throw new IllegalArgumentException("Unknown role: " + msg.getSide());
-			}
-		}).toList());
+		int tailTokenBudget = this.contextTokenBudget;
+		LocalDateTime summarizedUntil = null;
+		ProblemSubmissionSummarySnapshot summary = this.problemSubmissionSummaryService
+			.getSummary(problemSubmissionMessageId);
+		if (summary != null) {
+			String summaryText = SUMMARY_PREFIX + summary.text();
+			historyMessages.add(new SystemMessage(summaryText));
+			tailTokenBudget -= TokenEstimatorUtil.estimateMessageTokens(summaryText);
+			// messages folded into the summary must not be sent again
+			summarizedUntil = summary.summarizedUntil();
+		}
+		historyMessages.addAll(this.problemSubmissionConversationService.getMessages(problemSubmissionMessageId,
+				Math.max(tailTokenBudget, 0), summarizedUntil));
 		historyMessages.addAll(chatClientRequest.prompt().getUserMessages());
-		chatClientRequest.prompt().mutate().messages(historyMessages);
-		return chatClientRequest;
+		return chatClientRequest.mutate()
+			.prompt(chatClientRequest.prompt().mutate().messages(historyMessages).build())
+			.build();
 	}
 
 	@Override
@@ -0,0 +1,56 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.configuration;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.syschallenge.problem.service.ProblemSubmissionConversationService;
+import com.syschallenge.problem.service.ProblemSubmissionSummaryService;
+
+/**
+ * Configuration class for the chat client used to talk with problem submissions
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Configuration
+public class ProblemSubmissionChatClientConfiguration {
+
+	/**
+	 * Creates the chat client which fills every prompt with the conversation history of
+	 * the problem submission, packed into {@code ai.context-token-budget} tokens
+	 * @param builder chat client builder configured by Spring AI
+	 * @param contextTokenBudget maximum number of estimated tokens of the history
+	 * @param problemSubmissionConversationService service of the conversation windows
+	 * @param problemSubmissionSummaryService service of the conversation summaries
+	 * @return configured chat client
+	 */
+	@Bean
+	public ChatClient problemSubmissionChatClient(ChatClient.Builder builder,
+			@Value("${ai.context-token-budget}") int contextTokenBudget,
+			ProblemSubmissionConversationService problemSubmissionConversationService,
+			ProblemSubmissionSummaryService problemSubmissionSummaryService) {
+		return builder
+			.defaultAdvisors(new PerProblemSubmissionChatMemoryAdvisor(contextTokenBudget,
+					problemSubmissionConversationService, problemSubmissionSummaryService))
+			.build();
+	}
+
+}
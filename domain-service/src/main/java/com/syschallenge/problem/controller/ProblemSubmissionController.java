@@ -0,0 +1,80 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.controller;
+
+import java.util.UUID;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.syschallenge.problem.payload.request.CreateProblemSubmissionMessageRequest;
+import com.syschallenge.problem.service.ProblemSubmissionChatService;
+import com.syschallenge.problem.service.ProblemSubmissionService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+/**
+ * REST controller for handling problem submission-related operations
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@RestController
+@RequestMapping("/api/v1/problem/submission")
+@RequiredArgsConstructor
+public class ProblemSubmissionController {
+
+	private final ProblemSubmissionChatService problemSubmissionChatService;
+
+	private final ProblemSubmissionService problemSubmissionService;
+
+	/**
+	 * Endpoint for sending a message within a problem submission. The answer of the
+	 * assistant is streamed as server-sent events: {@code token} events with the chunks
+	 * of the answer, then a {@code done} event with the ID of the persisted answer
+	 * @param id the UUID of the problem submission
+	 * @param request the request containing the message
+	 * @param auth the authentication token containing the requester's identity
+	 * @return stream of the answer events
+	 */
+	@PostMapping(value = "/{id}/message", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<ServerSentEvent<String>> createMessage(@PathVariable("id") UUID id,
+			@RequestBody @Validated CreateProblemSubmissionMessageRequest request,
+			UsernamePasswordAuthenticationToken auth) {
+		return this.problemSubmissionChatService.stream(id, request.text(), UUID.fromString(auth.getName()));
+	}
+
+	/**
+	 * Endpoint for submitting a problem submission for evaluation. It finishes the
+	 * conversation, no more messages can be sent afterwards
+	 * @param id the UUID of the problem submission
+	 * @param auth the authentication token containing the requester's identity
+	 */
+	@PostMapping("/{id}/submit")
+	public void submit(@PathVariable("id") UUID id, UsernamePasswordAuthenticationToken auth) {
+		this.problemSubmissionService.submit(id, UUID.fromString(auth.getName()));
+	}
+
+}
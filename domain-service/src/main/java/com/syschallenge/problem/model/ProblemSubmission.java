@@ -51,4 +51,17 @@ public class ProblemSubmission {
 	@Column("created_at")
 	private LocalDateTime createdAt;
 
+	@Column("submitted_at")
+	private LocalDateTime submittedAt;
+
+	private String evaluation;
+
+	private int attempts;
+
+	@Column("claimed_at")
+	private LocalDateTime claimedAt;
+
+	@Column("processed_at")
+	private LocalDateTime processedAt;
+
 }
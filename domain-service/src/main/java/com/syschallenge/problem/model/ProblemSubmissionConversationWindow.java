@@ -0,0 +1,116 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.ai.chat.messages.Message;
+
+/**
+ * Bounded ring buffer holding the latest messages of a problem submission, already
+ * converted to chat messages. Once full, every appended message overwrites the oldest one
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+public class ProblemSubmissionConversationWindow {
+
+	private final UUID[] ids;
+
+	private final LocalDateTime[] createdAts;
+
+	private final Message[] messages;
+
+	private final int[] tokens;
+
+	private int start;
+
+	private int size;
+
+	/**
+	 * Creates an empty window
+	 * @param capacity maximum number of messages held
+	 */
+	public ProblemSubmissionConversationWindow(int capacity) {
+		this.ids = new UUID[capacity];
+		this.createdAts = new LocalDateTime[capacity];
+		this.messages = new Message[capacity];
+		this.tokens = new int[capacity];
+	}
+
+	/**
+	 * Appends a message as the newest one. A message already held is ignored
+	 * @param id the ID of the problem submission message
+	 * @param createdAt the creation date of the problem submission message
+	 * @param message chat message to append
+	 * @param tokens estimated number of tokens the message takes
+	 */
+	public synchronized void append(UUID id, LocalDateTime createdAt, Message message, int tokens) {
+		int capacity = this.messages.length;
+		for (int i = 0; i < this.size; i++) {
+			if (this.ids[(this.start + i) % capacity].equals(id)) {
+				return;
+			}
+		}
+		int index = (this.start + this.size) % capacity;
+		this.ids[index] = id;
+		this.createdAts[index] = createdAt;
+		this.messages[index] = message;
+		this.tokens[index] = tokens;
+		if (this.size < capacity) {
+			this.size++;
+		}
+		else {
+			this.start = (this.start + 1) % capacity;
+		}
+	}
+
+	/**
+	 * Gets the newest held messages created after a date that fit into a token budget
+	 * together
+	 * @param tokenBudget maximum number of tokens the messages may take together
+	 * @param after date the messages must be created after or null to take all of them
+	 * @return list of messages ordered from the oldest to the newest or null if some
+	 * messages created after the date may have been overwritten already
+	 */
+	public synchronized List<Message> getMessages(int tokenBudget, LocalDateTime after) {
+		int capacity = this.messages.length;
+		if (after != null && this.size == capacity && this.size > 0 && this.createdAts[this.start].isAfter(after)) {
+			return null;
+		}
+		int count = 0;
+		int usedTokens = 0;
+		while (count < this.size) {
+			int index = (this.start + this.size - 1 - count) % capacity;
+			if ((after != null && !this.createdAts[index].isAfter(after))
+					|| usedTokens + this.tokens[index] > tokenBudget) {
+				break;
+			}
+			usedTokens += this.tokens[index];
+			count++;
+		}
+		List<Message> result = new ArrayList<>(count);
+		for (int i = this.size - count; i < this.size; i++) {
+			result.add(this.messages[(this.start + i) % capacity]);
+		}
+		return result;
+	}
+
+}
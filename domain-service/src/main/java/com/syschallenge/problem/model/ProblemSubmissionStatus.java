@@ -18,6 +18,6 @@ package com.syschallenge.problem.model;
 
 public enum ProblemSubmissionStatus {
 
-	PENDING, PROCESSED
+	PENDING, SUBMITTED, PROCESSING, PROCESSED, FAILED
 
 }
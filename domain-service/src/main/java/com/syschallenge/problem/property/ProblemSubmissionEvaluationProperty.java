@@ -0,0 +1,35 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.property;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for the evaluation queue of problem submissions. Nodes that
+ * only serve the web tier disable the workers with {@code ai.evaluation.enabled=false}
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ConfigurationProperties("ai.evaluation")
+public record ProblemSubmissionEvaluationProperty(@DefaultValue("true") boolean enabled,
+		@DefaultValue("4") int concurrency, @DefaultValue("1s") Duration pollInterval,
+		@DefaultValue("10m") Duration claimTimeout, @DefaultValue("3") int maxAttempts) {
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.property;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for the rolling summarization of problem submissions
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ConfigurationProperties("ai.summary")
+public record ProblemSubmissionSummaryProperty(@DefaultValue("20") int triggerMessages,
+		@DefaultValue("10") int tailMessages, @DefaultValue("2") int threads, @DefaultValue("100") int queueCapacity,
+		@DefaultValue("10000") long cacheMaximumSize, @DefaultValue("1m") Duration cacheTtl) {
+}
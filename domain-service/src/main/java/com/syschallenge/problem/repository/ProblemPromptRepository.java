@@ -0,0 +1,50 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.repository;
+
+import org.jooq.DSLContext;
+import org.springframework.stereotype.Repository;
+
+import com.syschallenge.problem.model.ProblemPrompt;
+import com.syschallenge.public_.tables.ProblemPromptsTable;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Repository for handling problem prompt data persistence operations
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProblemPromptRepository {
+
+	private final DSLContext ctx;
+
+	/**
+	 * Finds the prompt of a problem
+	 * @param problemId problem id to search for
+	 * @return problem prompt entity or null if not found
+	 */
+	public ProblemPrompt findByProblemId(Long problemId) {
+		return this.ctx.selectFrom(ProblemPromptsTable.PROBLEM_PROMPTS_TABLE)
+			.where(ProblemPromptsTable.PROBLEM_PROMPTS_TABLE.PROBLEM_ID.eq(problemId.intValue()))
+			.fetchOneInto(ProblemPrompt.class);
+	}
+
+}
@@ -19,9 +19,11 @@ package com.syschallenge.problem.repository;
 import com.syschallenge.problem.model.ProblemSubmissionMessage;
 import com.syschallenge.public_.tables.ProblemSubmissionMessagesTable;
 import lombok.RequiredArgsConstructor;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -37,14 +39,58 @@ public class ProblemSubmissionMessageRepository {
 
 	private final DSLContext ctx;
 
-	public List<ProblemSubmissionMessage> findByProblemSubmissionIdOrderByCreatedAtAsc(UUID problemSubmissionId,
-			int limit) {
+	/**
+	 * Saves a new problem submission message to the database
+	 * @param message entity to save
+	 * @return problem submission message entity with updated information
+	 */
+	public ProblemSubmissionMessage save(ProblemSubmissionMessage message) {
+		return this.ctx.insertInto(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE)
+			.set(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE.PROBLEM_SUBMISSION_ID,
+					message.getProblemSubmissionId())
+			.set(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE.SIDE,
+					com.syschallenge.public_.enums.ProblemSubmissionMessageSide.valueOf(message.getSide().name()))
+			.set(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE.TEXT, message.getText())
+			.set(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE.CREATED_AT, message.getCreatedAt())
+			.returningResult(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE)
+			.fetchOneInto(ProblemSubmissionMessage.class);
+	}
+
+	/**
+	 * Finds the latest messages of a problem submission, ordered from the newest to the
+	 * oldest
+	 * @param problemSubmissionId problem submission id to search for
+	 * @param limit maximum number of messages to return
+	 * @return list of the latest problem submission messages
+	 */
+	public List<ProblemSubmissionMessage> findLatestByProblemSubmissionId(UUID problemSubmissionId, int limit) {
 		return this.ctx.selectFrom(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE)
 			.where(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE.PROBLEM_SUBMISSION_ID
 				.eq(problemSubmissionId))
-			.orderBy(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE.CREATED_AT.asc())
+			.orderBy(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE.CREATED_AT.desc())
 			.limit(limit)
 			.fetchInto(ProblemSubmissionMessage.class);
 	}
 
+	/**
+	 * Finds the messages of a problem submission created after a point in time, ordered
+	 * from the oldest to the newest
+	 * @param problemSubmissionId problem submission id to search for
+	 * @param after point in time to search after or null to find all messages
+	 * @return list of problem submission messages
+	 */
+	public List<ProblemSubmissionMessage> findByProblemSubmissionIdCreatedAfter(UUID problemSubmissionId,
+			LocalDateTime after) {
+		Condition condition = ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE.PROBLEM_SUBMISSION_ID
+			.eq(problemSubmissionId);
+		if (after != null) {
+			condition = condition
+				.and(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE.CREATED_AT.gt(after));
+		}
+		return this.ctx.selectFrom(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE)
+			.where(condition)
+			.orderBy(ProblemSubmissionMessagesTable.PROBLEM_SUBMISSION_MESSAGES_TABLE.CREATED_AT.asc())
+			.fetchInto(ProblemSubmissionMessage.class);
+	}
+
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Repository;
+
+import com.syschallenge.problem.model.ProblemSubmission;
+import com.syschallenge.public_.enums.ProblemSubmissionStatus;
+import com.syschallenge.public_.tables.ProblemSubmissionsTable;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Repository for handling problem submission data persistence operations
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProblemSubmissionRepository {
+
+	private final DSLContext ctx;
+
+	/**
+	 * Finds a problem submission by its id
+	 * @param id problem submission id to search for
+	 * @return problem submission entity or null if not found
+	 */
+	public ProblemSubmission findById(UUID id) {
+		return this.ctx.selectFrom(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE)
+			.where(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.ID.eq(id))
+			.fetchOneInto(ProblemSubmission.class);
+	}
+
+	/**
+	 * Submits a pending problem submission for evaluation, finishing its conversation
+	 * @param id the ID of the problem submission
+	 * @return true if the submission was pending and is submitted now
+	 */
+	public boolean submit(UUID id) {
+		return this.ctx.update(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE)
+			.set(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.STATUS, ProblemSubmissionStatus.SUBMITTED)
+			.set(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.SUBMITTED_AT, LocalDateTime.now())
+			.where(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.ID.eq(id))
+			.and(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.STATUS.eq(ProblemSubmissionStatus.PENDING))
+			.execute() > 0;
+	}
+
+	/**
+	 * Claims the earliest submitted problem submissions waiting for evaluation, skipping
+	 * the ones locked by other workers. A submission is waiting while it is submitted, or
+	 * while it is being processed by a worker whose claim has expired
+	 * @param limit maximum number of submissions to claim
+	 * @param maxAttempts number of claims after which a submission is no longer retried
+	 * @param claimExpiredBefore claims made before this time are considered abandoned
+	 * @return claimed problem submission entities
+	 */
+	public List<ProblemSubmission> claimForEvaluation(int limit, int maxAttempts, LocalDateTime claimExpiredBefore) {
+		ProblemSubmissionsTable table = ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE;
+		return this.ctx.update(table)
+			.set(table.STATUS, ProblemSubmissionStatus.PROCESSING)
+			.set(table.CLAIMED_AT, LocalDateTime.now())
+			.set(table.ATTEMPTS, table.ATTEMPTS.plus(1).cast(Short.class))
+			.where(table.ID.in(this.ctx.select(table.ID)
+				.from(table)
+				.where(waitingForEvaluation(maxAttempts))
+				.and(table.STATUS.eq(ProblemSubmissionStatus.SUBMITTED).or(table.CLAIMED_AT.lt(claimExpiredBefore)))
+				.orderBy(table.SUBMITTED_AT)
+				.limit(limit)
+				.forUpdate()
+				.skipLocked()))
+			.returning()
+			.fetchInto(ProblemSubmission.class);
+	}
+
+	/**
+	 * Completes the evaluation of a claimed problem submission
+	 * @param id the ID of the problem submission
+	 * @param claimedAt the time the submission was claimed at
+	 * @param evaluation the evaluation of the submission
+	 * @return true if the claim was still held and the submission was completed
+	 */
+	public boolean markProcessed(UUID id, LocalDateTime claimedAt, String evaluation) {
+		return this.ctx.update(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE)
+			.set(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.STATUS, ProblemSubmissionStatus.PROCESSED)
+			.set(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.EVALUATION, evaluation)
+			.set(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.PROCESSED_AT, LocalDateTime.now())
+			.where(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.ID.eq(id))
+			.and(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.STATUS.eq(ProblemSubmissionStatus.PROCESSING))
+			.and(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.CLAIMED_AT.eq(claimedAt))
+			.execute() > 0;
+	}
+
+	/**
+	 * Returns a claimed problem submission to the submitted ones after a failed
+	 * evaluation, or fails it if it has no attempts left
+	 * @param id the ID of the problem submission
+	 * @param claimedAt the time the submission was claimed at
+	 * @param maxAttempts number of claims after which a submission is no longer retried
+	 * @return true if the submission has no attempts left and is failed now
+	 */
+	public boolean release(UUID id, LocalDateTime claimedAt, int maxAttempts) {
+		ProblemSubmissionsTable table = ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE;
+		ProblemSubmissionStatus status = this.ctx.update(table)
+			.set(table.STATUS,
+					DSL.when(table.ATTEMPTS.ge((short) maxAttempts), ProblemSubmissionStatus.FAILED)
+						.otherwise(ProblemSubmissionStatus.SUBMITTED))
+			.where(table.ID.eq(id))
+			.and(table.STATUS.eq(ProblemSubmissionStatus.PROCESSING))
+			.and(table.CLAIMED_AT.eq(claimedAt))
+			.returningResult(table.STATUS)
+			.fetchOne(table.STATUS);
+		return status == ProblemSubmissionStatus.FAILED;
+	}
+
+	/**
+	 * Fails the problem submissions whose last claim has expired without any attempts
+	 * left
+	 * @param maxAttempts number of claims after which a submission is no longer retried
+	 * @param claimExpiredBefore claims made before this time are considered abandoned
+	 * @return number of failed problem submissions
+	 */
+	public int failAbandoned(int maxAttempts, LocalDateTime claimExpiredBefore) {
+		return this.ctx.update(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE)
+			.set(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.STATUS, ProblemSubmissionStatus.FAILED)
+			.where(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.STATUS.eq(ProblemSubmissionStatus.PROCESSING))
+			.and(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.ATTEMPTS.ge((short) maxAttempts))
+			.and(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.CLAIMED_AT.lt(claimExpiredBefore))
+			.execute();
+	}
+
+	/**
+	 * Counts problem submissions which are not evaluated yet and may still be claimed
+	 * @param maxAttempts number of claims after which a submission is no longer retried
+	 * @return number of problem submissions waiting for evaluation
+	 */
+	public int countWaitingForEvaluation(int maxAttempts) {
+		return this.ctx.fetchCount(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE,
+				waitingForEvaluation(maxAttempts));
+	}
+
+	private Condition waitingForEvaluation(int maxAttempts) {
+		// matches the partial queue index
+		return ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.STATUS
+			.in(ProblemSubmissionStatus.SUBMITTED, ProblemSubmissionStatus.PROCESSING)
+			.and(ProblemSubmissionsTable.PROBLEM_SUBMISSIONS_TABLE.ATTEMPTS.lt((short) maxAttempts));
+	}
+
+}
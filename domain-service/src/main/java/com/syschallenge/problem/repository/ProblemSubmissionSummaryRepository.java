@@ -0,0 +1,81 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.repository;
+
+import java.util.UUID;
+
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Repository;
+
+import com.syschallenge.problem.model.ProblemSubmissionSummary;
+import com.syschallenge.public_.tables.ProblemSubmissionSummariesTable;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Repository for handling problem submission summary data persistence operations
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProblemSubmissionSummaryRepository {
+
+	private final DSLContext ctx;
+
+	/**
+	 * Finds the summary of a problem submission
+	 * @param problemSubmissionId problem submission id to search for
+	 * @return problem submission summary entity or null if not found
+	 */
+	public ProblemSubmissionSummary findByProblemSubmissionId(UUID problemSubmissionId) {
+		return this.ctx.selectFrom(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE)
+			.where(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE.PROBLEM_SUBMISSION_ID
+				.eq(problemSubmissionId))
+			.fetchOneInto(ProblemSubmissionSummary.class);
+	}
+
+	/**
+	 * Saves the summary of a problem submission, replacing the previous one only if it
+	 * covers fewer messages
+	 * @param summary entity to save
+	 * @return problem submission summary entity with updated information or null if a
+	 * summary covering at least the same messages is already saved
+	 */
+	public ProblemSubmissionSummary upsert(ProblemSubmissionSummary summary) {
+		return this.ctx.insertInto(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE)
+			.set(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE.PROBLEM_SUBMISSION_ID,
+					summary.getProblemSubmissionId())
+			.set(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE.TEXT, summary.getText())
+			.set(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE.SUMMARIZED_UNTIL,
+					summary.getSummarizedUntil())
+			.set(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE.UPDATED_AT, summary.getUpdatedAt())
+			.onConflict(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE.PROBLEM_SUBMISSION_ID)
+			.doUpdate()
+			.set(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE.TEXT, summary.getText())
+			.set(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE.SUMMARIZED_UNTIL,
+					summary.getSummarizedUntil())
+			.set(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE.UPDATED_AT, summary.getUpdatedAt())
+			.where(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE.SUMMARIZED_UNTIL
+				.lt(DSL.excluded(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE.SUMMARIZED_UNTIL)))
+			.returningResult(ProblemSubmissionSummariesTable.PROBLEM_SUBMISSION_SUMMARIES_TABLE)
+			.fetchOneInto(ProblemSubmissionSummary.class);
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+
+import com.syschallenge.problem.exception.ProblemSubmissionAlreadySubmittedException;
+import com.syschallenge.problem.exception.ProblemSubmissionNotFoundException;
+import com.syschallenge.problem.model.ProblemPrompt;
+import com.syschallenge.problem.model.ProblemSubmission;
+import com.syschallenge.problem.model.ProblemSubmissionMessage;
+import com.syschallenge.problem.model.ProblemSubmissionStatus;
+import com.syschallenge.problem.repository.ProblemPromptRepository;
+import com.syschallenge.problem.repository.ProblemSubmissionRepository;
+import com.syschallenge.shared.exception.PermissionDeniedException;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Service for talking with the assistant of a problem submission.
+ *
+ * <p>
+ * The answer is streamed to the client as it is generated, so no servlet thread waits for
+ * the whole generation. Chunks are also collected in memory, and once the generation
+ * completes the question and the full answer are persisted in a single transaction. A
+ * generation that fails or is cancelled by the client persists nothing.
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+public class ProblemSubmissionChatService {
+
+	/**
+	 * Name of the event carrying a chunk of the answer
+	 */
+	public static final String TOKEN_EVENT = "token";
+
+	/**
+	 * Name of the final event carrying the ID of the persisted answer
+	 */
+	public static final String DONE_EVENT = "done";
+
+	private final ProblemSubmissionRepository problemSubmissionRepository;
+
+	private final ProblemPromptRepository problemPromptRepository;
+
+	private final ProblemSubmissionMessageService problemSubmissionMessageService;
+
+	private final ChatClient problemSubmissionChatClient;
+
+	/**
+	 * Sends a message to the assistant of a problem submission and streams the answer
+	 * @param problemSubmissionId the ID of the problem submission
+	 * @param text the text of the message
+	 * @param principalId the ID of the user sending the message
+	 * @return stream of answer chunks followed by a single event with the ID of the
+	 * persisted answer
+	 * @throws ProblemSubmissionNotFoundException if the problem submission does not exist
+	 * @throws PermissionDeniedException if the problem submission belongs to another user
+	 * @throws ProblemSubmissionAlreadySubmittedException if the conversation of the
+	 * problem submission is already finished
+	 */
+	public Flux<ServerSentEvent<String>> stream(UUID problemSubmissionId, String text, UUID principalId)
+			throws ProblemSubmissionNotFoundException, PermissionDeniedException,
+			ProblemSubmissionAlreadySubmittedException {
+		ProblemSubmission problemSubmission = this.problemSubmissionRepository.findById(problemSubmissionId);
+		if (problemSubmission == null) {
+			throw new ProblemSubmissionNotFoundException(
+					"Problem submission with id '" + problemSubmissionId + "' not found");
+		}
+		if (!problemSubmission.getUserId().equals(principalId)) {
+			throw new PermissionDeniedException("You can only talk within your own problem submission.");
+		}
+		if (problemSubmission.getStatus() != ProblemSubmissionStatus.PENDING) {
+			throw new ProblemSubmissionAlreadySubmittedException(
+					"Problem submission with id '" + problemSubmissionId + "' is already submitted");
+		}
+		ProblemPrompt problemPrompt = this.problemPromptRepository.findByProblemId(problemSubmission.getProblemId());
+		LocalDateTime userCreatedAt = LocalDateTime.now();
+		StringBuilder answer = new StringBuilder();
+		Flux<ServerSentEvent<String>> tokens = this.problemSubmissionChatClient.prompt()
+			.system(problemPrompt != null ? problemPrompt.getGenerateText() : "")
+			.user(text)
+			.advisors(advisor -> advisor.param("problemSubmissionMessageId", problemSubmissionId))
+			.stream()
+			.content()
+			.doOnNext(answer::append)
+			.map(chunk -> ServerSentEvent.builder(chunk).event(TOKEN_EVENT).build());
+		// the answer is persisted off the thread delivering the chunks
+		Mono<ServerSentEvent<String>> done = Mono
+			.fromCallable(() -> this.problemSubmissionMessageService.createTurn(problemSubmissionId, text,
+					userCreatedAt, answer.toString()))
+			.subscribeOn(Schedulers.boundedElastic())
+			.map(ProblemSubmissionMessage::getId)
+			.map(id -> ServerSentEvent.builder(id.toString()).event(DONE_EVENT).build());
+		return tokens.concatWith(done);
+	}
+
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.syschallenge.problem.model.ProblemSubmissionConversationWindow;
+import com.syschallenge.problem.model.ProblemSubmissionMessage;
+import com.syschallenge.problem.model.ProblemSubmissionMessageSide;
+import com.syschallenge.problem.property.ProblemSubmissionConversationCacheProperty;
+import com.syschallenge.problem.repository.ProblemSubmissionMessageRepository;
+import com.syschallenge.problem.util.TokenEstimatorUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Service for handling the conversation windows of problem submissions, the latest
+ * {@code ai.context-window} messages sent to the model on every turn.
+ *
+ * <p>
+ * Windows of active submissions are held in memory as ring buffers of ready-made chat
+ * messages with their estimated token counts, computed once per message, and mirrored to
+ * Redis lists shared by all nodes. Persisted messages are appended to both, and other
+ * nodes are told to drop their in-memory window, so they reload it from Redis. Only a
+ * window missing from both tiers is read from the database. Every append bumps a version
+ * of the conversation in Redis, and a window read from the database is mirrored only if
+ * the version did not move during the read and no other node mirrored it first, so a
+ * message persisted during the read is never lost from the mirror. Windows idle for
+ * longer than the configured TTL are evicted from both tiers.
+ *
+ * <p>
+ * In-memory window statistics are published under the
+ * {@code problem.submission.conversation} cache name, and Redis tier hits and misses
+ * under {@code problem.submission.conversation.cache.redis}.
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+public class ProblemSubmissionConversationService implements MessageListener {
+
+	private static final String CACHE_NAME = "problem.submission.conversation";
+
+	private static final String CONVERSATION_KEY_PREFIX = "problem:submission:conversation:";
+
+	private static final String INVALIDATION_CHANNEL = "problem:submission:conversation:invalidation";
+
+	private static final String VERSION_KEY_SUFFIX = ":version";
+
+	private static final String SEPARATOR = "|";
+
+	private static final RedisScript<Long> MIRROR_SCRIPT = RedisScript.of("""
+			if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] or redis.call('EXISTS', KEYS[1]) == 1 then
+				return 0
+			end
+			redis.call('RPUSH', KEYS[1], unpack(ARGV, 3))
+			redis.call('PEXPIRE', KEYS[1], ARGV[2])
+			return 1
+			""", Long.class);
+
+	private final String nodeId = UUID.randomUUID().toString();
+
+	private final int contextWindow;
+
+	private final ProblemSubmissionMessageRepository problemSubmissionMessageRepository;
+
+	private final StringRedisTemplate redisTemplate;
+
+	private final ProblemSubmissionConversationCacheProperty properties;
+
+	private final Cache<UUID, ProblemSubmissionConversationWindow> localCache;
+
+	private final Counter redisHits;
+
+	private final Counter redisMisses;
+
+	public ProblemSubmissionConversationService(@Value("${ai.context-window}") int contextWindow,
+			ProblemSubmissionMessageRepository problemSubmissionMessageRepository, StringRedisTemplate redisTemplate,
+			RedisMessageListenerContainer listenerContainer, MeterRegistry meterRegistry,
+			ProblemSubmissionConversationCacheProperty properties) {
+		this.contextWindow = contextWindow;
+		this.problemSubmissionMessageRepository = problemSubmissionMessageRepository;
+		this.redisTemplate = redisTemplate;
+		this.properties = properties;
+		this.localCache = Caffeine.newBuilder()
+			.maximumSize(properties.localMaximumSize())
+			.expireAfterAccess(properties.ttl())
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.localCache, CACHE_NAME);
+		this.redisHits = Counter.builder(CACHE_NAME + ".cache.redis").tag("result", "hit").register(meterRegistry);
+		this.redisMisses = Counter.builder(CACHE_NAME + ".cache.redis").tag("result", "miss").register(meterRegistry);
+		listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+	}
+
+	/**
+	 * Gets the newest messages of the conversation window of a problem submission that
+	 * were created after a date and fit into a token budget. Messages the window no
+	 * longer holds, because the date lags behind it, are read from the database
+	 * @param problemSubmissionId the ID of the problem submission
+	 * @param tokenBudget maximum number of estimated tokens the messages may take
+	 * @param after date the messages must be created after or null to take the whole
+	 * window
+	 * @return list of the latest chat messages ordered from the oldest to the newest
+	 */
+	public List<Message> getMessages(UUID problemSubmissionId, int tokenBudget, LocalDateTime after) {
+		List<Message> messages = this.localCache.get(problemSubmissionId, this::load).getMessages(tokenBudget, after);
+		if (messages != null) {
+			return messages;
+		}
+		List<ProblemSubmissionMessage> history = this.problemSubmissionMessageRepository
+			.findByProblemSubmissionIdCreatedAfter(problemSubmissionId, after);
+		ProblemSubmissionConversationWindow window = new ProblemSubmissionConversationWindow(history.size());
+		history.forEach(message -> appendToWindow(window, message));
+		return window.getMessages(tokenBudget, null);
+	}
+
+	/**
+	 * Appends a persisted message to the conversation window of its problem submission.
+	 * Windows that are not cached are left alone, they are loaded with the message
+	 * @param message persisted problem submission message
+	 */
+	public void append(ProblemSubmissionMessage message) {
+		UUID problemSubmissionId = message.getProblemSubmissionId();
+		String key = CONVERSATION_KEY_PREFIX + problemSubmissionId;
+		// bumped before the push, so that a window read from the database before the
+		// message was persisted is not mirrored without it
+		String versionKey = key + VERSION_KEY_SUFFIX;
+		this.redisTemplate.opsForValue().increment(versionKey);
+		this.redisTemplate.expire(versionKey, this.properties.ttl());
+		Long length = this.redisTemplate.opsForList().rightPushIfPresent(key, encode(message));
+		if (length != null && length > this.contextWindow) {
+			this.redisTemplate.opsForList().trim(key, -this.contextWindow, -1);
+		}
+		this.redisTemplate.expire(key, this.properties.ttl());
+		// waits for a window being loaded, which may have been read without the message
+		this.localCache.asMap().computeIfPresent(problemSubmissionId, (id, window) -> {
+			appendToWindow(window, message);
+			return window;
+		});
+		this.redisTemplate.convertAndSend(INVALIDATION_CHANNEL, this.nodeId + SEPARATOR + problemSubmissionId);
+	}
+
+	/**
+	 * Drops the in-memory window of a problem submission that got a new message on
+	 * another node
+	 * @param message message containing the ID of the node and of the problem submission
+	 * @param pattern pattern matching the channel
+	 */
+	@Override
+	public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+		String body = new String(message.getBody(), StandardCharsets.UTF_8);
+		int separatorIndex = body.indexOf(SEPARATOR);
+		if (!this.nodeId.equals(body.substring(0, separatorIndex))) {
+			this.localCache.invalidate(UUID.fromString(body.substring(separatorIndex + 1)));
+		}
+	}
+
+	private ProblemSubmissionConversationWindow load(UUID problemSubmissionId) {
+		ProblemSubmissionConversationWindow window = new ProblemSubmissionConversationWindow(this.contextWindow);
+		String key = CONVERSATION_KEY_PREFIX + problemSubmissionId;
+		List<String> cachedMessages = this.redisTemplate.opsForList().range(key, 0, -1);
+		if (cachedMessages != null && !cachedMessages.isEmpty()) {
+			this.redisHits.increment();
+			cachedMessages.forEach(cachedMessage -> appendDecoded(window, cachedMessage));
+			this.redisTemplate.expire(key, this.properties.ttl());
+			return window;
+		}
+		this.redisMisses.increment();
+		String version = this.redisTemplate.opsForValue().get(key + VERSION_KEY_SUFFIX);
+		List<ProblemSubmissionMessage> history = new ArrayList<>(this.problemSubmissionMessageRepository
+			.findLatestByProblemSubmissionId(problemSubmissionId, this.contextWindow));
+		// since we will receive messages from the newest to the oldest, we need to
+		// reverse them
+		Collections.reverse(history);
+		history.forEach(message -> appendToWindow(window, message));
+		if (!history.isEmpty()) {
+			List<String> args = new ArrayList<>(history.size() + 2);
+			args.add(version != null ? version : "0");
+			args.add(String.valueOf(this.properties.ttl().toMillis()));
+			history.forEach(message -> args.add(encode(message)));
+			this.redisTemplate.execute(MIRROR_SCRIPT, List.of(key, key + VERSION_KEY_SUFFIX), args.toArray());
+		}
+		return window;
+	}
+
+	private String encode(ProblemSubmissionMessage message) {
+		return message.getId() + SEPARATOR + message.getSide() + SEPARATOR + message.getCreatedAt() + SEPARATOR
+				+ message.getText();
+	}
+
+	private void appendDecoded(ProblemSubmissionConversationWindow window, String cachedMessage) {
+		String[] parts = cachedMessage.split(Pattern.quote(SEPARATOR), 4);
+		ProblemSubmissionMessage message = ProblemSubmissionMessage.builder()
+			.id(UUID.fromString(parts[0]))
+			.side(ProblemSubmissionMessageSide.valueOf(parts[1]))
+			.createdAt(LocalDateTime.parse(parts[2]))
+			.text(parts[3])
+			.build();
+		appendToWindow(window, message);
+	}
+
+	private static void appendToWindow(ProblemSubmissionConversationWindow window, ProblemSubmissionMessage message) {
+		window.append(message.getId(), message.getCreatedAt(), toChatMessage(message),
+				TokenEstimatorUtil.estimateMessageTokens(message.getText()));
+	}
+
+	private static Message toChatMessage(ProblemSubmissionMessage message) {
+		if (message.getSide().equals(ProblemSubmissionMessageSide.USER)) {
+			return new UserMessage(message.getText());
+		}
+		else if (message.getSide().equals(ProblemSubmissionMessageSide.ASSISTANT)) {
+			return new AssistantMessage(message.getText());
+		}
+		else {
+			throw new IllegalArgumentException("Unknown role: " + message.getSide());
+		}
+	}
+
+}
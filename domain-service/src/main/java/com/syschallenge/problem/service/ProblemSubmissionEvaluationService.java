@@ -0,0 +1,234 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.syschallenge.problem.model.ProblemPrompt;
+import com.syschallenge.problem.model.ProblemSubmission;
+import com.syschallenge.problem.model.ProblemSubmissionMessage;
+import com.syschallenge.problem.property.ProblemSubmissionEvaluationProperty;
+import com.syschallenge.problem.repository.ProblemPromptRepository;
+import com.syschallenge.problem.repository.ProblemSubmissionMessageRepository;
+import com.syschallenge.problem.repository.ProblemSubmissionRepository;
+import com.syschallenge.shared.util.ThreadFactoryUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service for evaluating submitted problem submissions.
+ *
+ * <p>
+ * {@code problem_submissions_table} itself is the queue: a poller claims the earliest
+ * submitted submissions with {@code FOR UPDATE SKIP LOCKED}, so any number of nodes can
+ * work on it without handing out a submission twice, and hands them to a pool of
+ * {@code ai.evaluation.concurrency} workers. Submissions whose conversation is still
+ * going on are pending and never claimed. A submission whose worker fails or does not
+ * finish within {@code ai.evaluation.claim-timeout} is claimed again; after
+ * {@code ai.evaluation.max-attempts} claims it is failed for good. The queue depth, claim
+ * latency, processing time, errors and failed submissions are published under the
+ * {@code problem.submission.evaluation} name.
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+@ConditionalOnProperty(prefix = "ai.evaluation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProblemSubmissionEvaluationService {
+
+	private static final String METRIC_NAME = "problem.submission.evaluation";
+
+	private final ProblemSubmissionRepository problemSubmissionRepository;
+
+	private final ProblemPromptRepository problemPromptRepository;
+
+	private final ProblemSubmissionMessageRepository problemSubmissionMessageRepository;
+
+	private final ChatModel chatModel;
+
+	private final ProblemSubmissionEvaluationProperty properties;
+
+	private final ScheduledExecutorService poller;
+
+	private final ThreadPoolExecutor workers;
+
+	private final Semaphore freeWorkers;
+
+	private final Timer claimTimer;
+
+	private final Timer processedTimer;
+
+	private final Timer failedTimer;
+
+	private final Timer expiredTimer;
+
+	private final Counter pollErrors;
+
+	private final Counter evaluationErrors;
+
+	private final Counter exhausted;
+
+	public ProblemSubmissionEvaluationService(ProblemSubmissionRepository problemSubmissionRepository,
+			ProblemPromptRepository problemPromptRepository,
+			ProblemSubmissionMessageRepository problemSubmissionMessageRepository, ChatModel chatModel,
+			MeterRegistry meterRegistry, ProblemSubmissionEvaluationProperty properties,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		this.problemSubmissionRepository = problemSubmissionRepository;
+		this.problemPromptRepository = problemPromptRepository;
+		this.problemSubmissionMessageRepository = problemSubmissionMessageRepository;
+		this.chatModel = chatModel;
+		this.properties = properties;
+		this.poller = Executors
+			.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("problem-evaluation-poller-"));
+		// never queues more than the free workers, since only that many submissions are
+		// claimed at once
+		this.workers = new ThreadPoolExecutor(properties.concurrency(), properties.concurrency(), 0,
+				TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+				ThreadFactoryUtil.create("problem-evaluation-", virtualThreads));
+		this.freeWorkers = new Semaphore(properties.concurrency());
+		ExecutorServiceMetrics.monitor(meterRegistry, this.workers, METRIC_NAME);
+		Gauge
+			.builder(METRIC_NAME + ".queue", problemSubmissionRepository,
+					repository -> repository.countWaitingForEvaluation(properties.maxAttempts()))
+			.register(meterRegistry);
+		this.claimTimer = Timer.builder(METRIC_NAME + ".claim").register(meterRegistry);
+		this.processedTimer = Timer.builder(METRIC_NAME + ".processing")
+			.tag("result", "processed")
+			.register(meterRegistry);
+		this.failedTimer = Timer.builder(METRIC_NAME + ".processing").tag("result", "failed").register(meterRegistry);
+		this.expiredTimer = Timer.builder(METRIC_NAME + ".processing").tag("result", "expired").register(meterRegistry);
+		this.pollErrors = Counter.builder(METRIC_NAME + ".errors").tag("stage", "poll").register(meterRegistry);
+		this.evaluationErrors = Counter.builder(METRIC_NAME + ".errors")
+			.tag("stage", "evaluate")
+			.register(meterRegistry);
+		this.exhausted = Counter.builder(METRIC_NAME + ".exhausted").register(meterRegistry);
+	}
+
+	/**
+	 * Starts polling for submitted problem submissions once the application is ready
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		long interval = this.properties.pollInterval().toMillis();
+		this.poller.scheduleWithFixedDelay(() -> {
+			try {
+				poll();
+			}
+			catch (RuntimeException e) {
+				// a failed poll must not cancel the following ones
+				this.pollErrors.increment();
+			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Fails the abandoned problem submissions without attempts left, then claims as many
+	 * submitted problem submissions as there are free workers and hands them over to the
+	 * workers
+	 */
+	public void poll() {
+		LocalDateTime claimExpiredBefore = LocalDateTime.now().minus(this.properties.claimTimeout());
+		this.exhausted.increment(
+				this.problemSubmissionRepository.failAbandoned(this.properties.maxAttempts(), claimExpiredBefore));
+		int limit = this.freeWorkers.availablePermits();
+		if (limit == 0) {
+			return;
+		}
+		List<ProblemSubmission> claimed = this.claimTimer.record(() -> this.problemSubmissionRepository
+			.claimForEvaluation(limit, this.properties.maxAttempts(), claimExpiredBefore));
+		for (ProblemSubmission problemSubmission : claimed) {
+			this.freeWorkers.acquireUninterruptibly();
+			this.workers.execute(() -> {
+				try {
+					evaluate(problemSubmission);
+				}
+				finally {
+					this.freeWorkers.release();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Evaluates a claimed problem submission and marks it as processed. A failed
+	 * evaluation returns the submission to the submitted ones, or fails it if it has no
+	 * attempts left
+	 * @param problemSubmission the claimed problem submission
+	 */
+	public void evaluate(ProblemSubmission problemSubmission) {
+		Timer.Sample sample = Timer.start();
+		try {
+			String evaluation = this.chatModel.call(new SystemMessage(getInstructions(problemSubmission)),
+					new UserMessage(getTranscript(problemSubmission)));
+			// the claim may have expired and been taken over by another worker
+			boolean processed = this.problemSubmissionRepository.markProcessed(problemSubmission.getId(),
+					problemSubmission.getClaimedAt(), evaluation);
+			sample.stop(processed ? this.processedTimer : this.expiredTimer);
+		}
+		catch (RuntimeException e) {
+			this.evaluationErrors.increment();
+			sample.stop(this.failedTimer);
+			if (this.problemSubmissionRepository.release(problemSubmission.getId(), problemSubmission.getClaimedAt(),
+					this.properties.maxAttempts())) {
+				this.exhausted.increment();
+			}
+		}
+	}
+
+	@PreDestroy
+	void shutdown() {
+		this.poller.shutdownNow();
+		this.workers.shutdown();
+	}
+
+	private String getInstructions(ProblemSubmission problemSubmission) {
+		ProblemPrompt problemPrompt = this.problemPromptRepository.findByProblemId(problemSubmission.getProblemId());
+		return problemPrompt != null ? problemPrompt.getThinkText() : "";
+	}
+
+	private String getTranscript(ProblemSubmission problemSubmission) {
+		List<ProblemSubmissionMessage> messages = this.problemSubmissionMessageRepository
+			.findByProblemSubmissionIdCreatedAfter(problemSubmission.getId(), null);
+		StringBuilder transcript = new StringBuilder();
+		messages.forEach(
+				message -> transcript.append(message.getSide()).append(": ").append(message.getText()).append('\n'));
+		return transcript.toString();
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.syschallenge.problem.model.ProblemSubmissionMessage;
+import com.syschallenge.problem.model.ProblemSubmissionMessageSide;
+import com.syschallenge.problem.repository.ProblemSubmissionMessageRepository;
+import com.syschallenge.shared.util.TransactionUtil;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service for handling problem submission message operations
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+public class ProblemSubmissionMessageService {
+
+	private final ProblemSubmissionMessageRepository problemSubmissionMessageRepository;
+
+	private final ProblemSubmissionConversationService problemSubmissionConversationService;
+
+	private final ProblemSubmissionSummaryService problemSubmissionSummaryService;
+
+	/**
+	 * Creates a problem submission message and appends it to the conversation window of
+	 * the submission once persisted. Every assistant message, which ends a turn, also
+	 * requests a background summarization of the submission
+	 * @param problemSubmissionId the ID of the problem submission
+	 * @param side the side that sent the message
+	 * @param text the text of the message
+	 * @return persisted problem submission message
+	 */
+	@Transactional(isolation = Isolation.READ_COMMITTED)
+	public ProblemSubmissionMessage create(UUID problemSubmissionId, ProblemSubmissionMessageSide side, String text) {
+		ProblemSubmissionMessage message = save(problemSubmissionId, side, text, LocalDateTime.now());
+		TransactionUtil.afterCommit(() -> onCommitted(message));
+		return message;
+	}
+
+	/**
+	 * Creates both messages of a completed turn at once, the question of the user and the
+	 * answer of the assistant
+	 * @param problemSubmissionId the ID of the problem submission
+	 * @param userText the text of the user message
+	 * @param userCreatedAt the time the user message was sent at
+	 * @param assistantText the full text of the assistant answer
+	 * @return persisted assistant message
+	 */
+	@Transactional(isolation = Isolation.READ_COMMITTED)
+	public ProblemSubmissionMessage createTurn(UUID problemSubmissionId, String userText, LocalDateTime userCreatedAt,
+			String assistantText) {
+		ProblemSubmissionMessage userMessage = save(problemSubmissionId, ProblemSubmissionMessageSide.USER, userText,
+				userCreatedAt);
+		ProblemSubmissionMessage assistantMessage = save(problemSubmissionId, ProblemSubmissionMessageSide.ASSISTANT,
+				assistantText, LocalDateTime.now());
+		TransactionUtil.afterCommit(() -> {
+			onCommitted(userMessage);
+			onCommitted(assistantMessage);
+		});
+		return assistantMessage;
+	}
+
+	private ProblemSubmissionMessage save(UUID problemSubmissionId, ProblemSubmissionMessageSide side, String text,
+			LocalDateTime createdAt) {
+		return this.problemSubmissionMessageRepository.save(ProblemSubmissionMessage.builder()
+			.problemSubmissionId(problemSubmissionId)
+			.side(side)
+			.text(text)
+			.createdAt(createdAt)
+			.build());
+	}
+
+	private void onCommitted(ProblemSubmissionMessage message) {
+		this.problemSubmissionConversationService.append(message);
+		if (message.getSide() == ProblemSubmissionMessageSide.ASSISTANT) {
+			this.problemSubmissionSummaryService.requestSummary(message.getProblemSubmissionId());
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.service;
+
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+
+import com.syschallenge.problem.exception.ProblemSubmissionAlreadySubmittedException;
+import com.syschallenge.problem.exception.ProblemSubmissionNotFoundException;
+import com.syschallenge.problem.model.ProblemSubmission;
+import com.syschallenge.problem.repository.ProblemSubmissionRepository;
+import com.syschallenge.shared.exception.PermissionDeniedException;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service for handling problem submission-related operations
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+public class ProblemSubmissionService {
+
+	private final ProblemSubmissionRepository problemSubmissionRepository;
+
+	/**
+	 * Submits a problem submission for evaluation, finishing its conversation
+	 * @param problemSubmissionId the ID of the problem submission
+	 * @param principalId the ID of the user submitting the problem submission
+	 * @throws ProblemSubmissionNotFoundException if the problem submission does not exist
+	 * @throws PermissionDeniedException if the problem submission belongs to another user
+	 * @throws ProblemSubmissionAlreadySubmittedException if the problem submission is
+	 * already submitted
+	 */
+	public void submit(UUID problemSubmissionId, UUID principalId) throws ProblemSubmissionNotFoundException,
+			PermissionDeniedException, ProblemSubmissionAlreadySubmittedException {
+		ProblemSubmission problemSubmission = this.problemSubmissionRepository.findById(problemSubmissionId);
+		if (problemSubmission == null) {
+			throw new ProblemSubmissionNotFoundException(
+					"Problem submission with id '" + problemSubmissionId + "' not found");
+		}
+		if (!problemSubmission.getUserId().equals(principalId)) {
+			throw new PermissionDeniedException("You can only submit your own problem submission.");
+		}
+		if (!this.problemSubmissionRepository.submit(problemSubmissionId)) {
+			throw new ProblemSubmissionAlreadySubmittedException(
+					"Problem submission with id '" + problemSubmissionId + "' is already submitted");
+		}
+	}
+
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.syschallenge.problem.model.ProblemSubmissionMessage;
+import com.syschallenge.problem.model.ProblemSubmissionSummary;
+import com.syschallenge.problem.model.ProblemSubmissionSummarySnapshot;
+import com.syschallenge.problem.property.ProblemSubmissionSummaryProperty;
+import com.syschallenge.problem.repository.ProblemSubmissionMessageRepository;
+import com.syschallenge.problem.repository.ProblemSubmissionSummaryRepository;
+import com.syschallenge.shared.util.ThreadFactoryUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service for handling the rolling summaries of problem submissions.
+ *
+ * <p>
+ * Once a submission has more than {@code ai.summary.trigger-messages} messages that are
+ * not summarized yet, all of them but the latest {@code ai.summary.tail-messages} are
+ * folded into the stored summary of the submission by the model. Summarization runs on a
+ * bounded executor off the request path; at most one summarization per submission is
+ * queued or running, and requests that do not fit into the queue are dropped, since the
+ * next message requests it again. Executor statistics are published under the
+ * {@code problem.submission.summary} name.
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+public class ProblemSubmissionSummaryService {
+
+	private static final String METRIC_NAME = "problem.submission.summary";
+
+	private static final ProblemSubmissionSummarySnapshot NO_SUMMARY = new ProblemSubmissionSummarySnapshot(null, null);
+
+	private static final String INSTRUCTIONS = """
+			You maintain a running summary of a system design interview between a candidate (USER) \
+			and an interviewer (ASSISTANT). Update the previous summary with the new messages. Keep \
+			the requirements, the chosen design and its trade-offs, the decisions made and the open \
+			questions. Reply with the updated summary only.""";
+
+	private final ProblemSubmissionMessageRepository problemSubmissionMessageRepository;
+
+	private final ProblemSubmissionSummaryRepository problemSubmissionSummaryRepository;
+
+	private final ChatModel chatModel;
+
+	private final ProblemSubmissionSummaryProperty properties;
+
+	private final ThreadPoolExecutor executor;
+
+	private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+	private final LoadingCache<UUID, ProblemSubmissionSummarySnapshot> summaryCache;
+
+	private final Counter rejected;
+
+	public ProblemSubmissionSummaryService(ProblemSubmissionMessageRepository problemSubmissionMessageRepository,
+			ProblemSubmissionSummaryRepository problemSubmissionSummaryRepository, ChatModel chatModel,
+			MeterRegistry meterRegistry, ProblemSubmissionSummaryProperty properties,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		this.problemSubmissionMessageRepository = problemSubmissionMessageRepository;
+		this.problemSubmissionSummaryRepository = problemSubmissionSummaryRepository;
+		this.chatModel = chatModel;
+		this.properties = properties;
+		this.executor = new ThreadPoolExecutor(properties.threads(), properties.threads(), 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(properties.queueCapacity()),
+				ThreadFactoryUtil.create("problem-summary-", virtualThreads));
+		ExecutorServiceMetrics.monitor(meterRegistry, this.executor, METRIC_NAME);
+		this.rejected = Counter.builder(METRIC_NAME + ".rejected").register(meterRegistry);
+		// submissions without a summary are cached as a snapshot without text
+		this.summaryCache = Caffeine.newBuilder()
+			.maximumSize(properties.cacheMaximumSize())
+			.expireAfterWrite(properties.cacheTtl())
+			.build(this::loadSummary);
+	}
+
+	/**
+	 * Gets the summary of the older messages of a problem submission
+	 * @param problemSubmissionId the ID of the problem submission
+	 * @return summary with the creation date of the last summarized message or null if
+	 * the submission is not summarized yet
+	 */
+	public ProblemSubmissionSummarySnapshot getSummary(UUID problemSubmissionId) {
+		ProblemSubmissionSummarySnapshot summary = this.summaryCache.get(problemSubmissionId);
+		return summary != NO_SUMMARY ? summary : null;
+	}
+
+	/**
+	 * Requests a summarization of a problem submission in the background
+	 * @param problemSubmissionId the ID of the problem submission
+	 */
+	public void requestSummary(UUID problemSubmissionId) {
+		if (!this.inFlight.add(problemSubmissionId)) {
+			return;
+		}
+		try {
+			this.executor.execute(() -> {
+				try {
+					summarize(problemSubmissionId);
+				}
+				finally {
+					this.inFlight.remove(problemSubmissionId);
+				}
+			});
+		}
+		catch (RejectedExecutionException ignored) {
+			this.inFlight.remove(problemSubmissionId);
+			this.rejected.increment();
+		}
+	}
+
+	/**
+	 * Folds the older messages of a problem submission into its summary, if enough of
+	 * them are not summarized yet
+	 * @param problemSubmissionId the ID of the problem submission
+	 */
+	public void summarize(UUID problemSubmissionId) {
+		ProblemSubmissionSummary summary = this.problemSubmissionSummaryRepository
+			.findByProblemSubmissionId(problemSubmissionId);
+		List<ProblemSubmissionMessage> messages = this.problemSubmissionMessageRepository
+			.findByProblemSubmissionIdCreatedAfter(problemSubmissionId,
+					summary != null ? summary.getSummarizedUntil() : null);
+		int foldedCount = messages.size() - this.properties.tailMessages();
+		if (messages.size() <= this.properties.triggerMessages() || foldedCount <= 0) {
+			return;
+		}
+		List<ProblemSubmissionMessage> folded = messages.subList(0, foldedCount);
+		StringBuilder prompt = new StringBuilder("Previous summary:\n")
+			.append(summary != null ? summary.getText() : "(none)")
+			.append("\n\nNew messages:\n");
+		folded.forEach(message -> prompt.append(message.getSide()).append(": ").append(message.getText()).append('\n'));
+		String text = this.chatModel.call(new SystemMessage(INSTRUCTIONS), new UserMessage(prompt.toString()));
+		ProblemSubmissionSummary updated = this.problemSubmissionSummaryRepository
+			.upsert(ProblemSubmissionSummary.builder()
+				.problemSubmissionId(problemSubmissionId)
+				.text(text)
+				.summarizedUntil(folded.get(folded.size() - 1).getCreatedAt())
+				.updatedAt(LocalDateTime.now())
+				.build());
+		if (updated == null) {
+			// a concurrent summarization already saved a newer summary
+			this.summaryCache.invalidate(problemSubmissionId);
+			return;
+		}
+		this.summaryCache.put(problemSubmissionId,
+				new ProblemSubmissionSummarySnapshot(updated.getText(), updated.getSummarizedUntil()));
+	}
+
+	@PreDestroy
+	void shutdown() {
+		this.executor.shutdown();
+	}
+
+	private ProblemSubmissionSummarySnapshot loadSummary(UUID problemSubmissionId) {
+		ProblemSubmissionSummary summary = this.problemSubmissionSummaryRepository
+			.findByProblemSubmissionId(problemSubmissionId);
+		return summary != null ? new ProblemSubmissionSummarySnapshot(summary.getText(), summary.getSummarizedUntil())
+				: NO_SUMMARY;
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem.util;
+
+/**
+ * Utility class for estimating how many model tokens a chat message takes, without
+ * running a tokenizer. Runs of ASCII letters and digits are counted as one token per four
+ * characters, any other non-whitespace character, non-ASCII letters included, as one
+ * token, and every message adds a fixed overhead for its role markers. The estimate errs
+ * on the high side for non-English text
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+public final class TokenEstimatorUtil {
+
+	private static final int CHARACTERS_PER_TOKEN = 4;
+
+	private static final int MESSAGE_OVERHEAD = 4;
+
+	private TokenEstimatorUtil() {
+	}
+
+	/**
+	 * Estimates the number of tokens a chat message takes
+	 * @param text the text of the message
+	 * @return estimated number of tokens, including the message overhead
+	 */
+	public static int estimateMessageTokens(String text) {
+		int tokens = MESSAGE_OVERHEAD;
+		int wordLength = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (Character.isLetterOrDigit(c) && c < 128) {
+				wordLength++;
+				continue;
+			}
+			tokens += (wordLength + CHARACTERS_PER_TOKEN - 1) / CHARACTERS_PER_TOKEN;
+			wordLength = 0;
+			if (!Character.isWhitespace(c) && !Character.isLowSurrogate(c)) {
+				tokens++;
+			}
+		}
+		return tokens + (wordLength + CHARACTERS_PER_TOKEN - 1) / CHARACTERS_PER_TOKEN;
+	}
+
+}
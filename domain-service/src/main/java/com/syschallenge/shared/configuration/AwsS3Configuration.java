@@ -28,6 +28,7 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 /**
  * Configuration class for AWS S3 client setup
@@ -57,4 +58,21 @@ public class AwsS3Configuration {
 			.build();
 	}
 
+	/**
+	 * Creates and configures an {@link S3Presigner} bean signing URLs for the same
+	 * storage as the {@link S3Client} bean.
+	 * @return the configured {@link S3Presigner} instance
+	 */
+	@Bean
+	public S3Presigner s3Presigner() {
+		return S3Presigner.builder()
+			.region(Region.of(this.awsS3Property.region()))
+			.credentialsProvider(StaticCredentialsProvider
+				.create(AwsBasicCredentials.create(this.awsS3Property.accessKey(), this.awsS3Property.secretKey())))
+			.endpointOverride(URI.create(this.awsS3Property.endpoint()))
+			.serviceConfiguration(
+					software.amazon.awssdk.services.s3.S3Configuration.builder().pathStyleAccessEnabled(true).build())
+			.build();
+	}
+
 }
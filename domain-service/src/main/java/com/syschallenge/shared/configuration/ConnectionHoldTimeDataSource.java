@@ -0,0 +1,102 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Data source timing how long every connection is held before it is returned to the pool,
+ * published under {@code db.connection.hold} and tagged with the endpoint the connection
+ * was taken for, or {@code none} outside of a mapped request
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource {
+
+	private static final String METRIC_NAME = "db.connection.hold";
+
+	private static final String NO_ENDPOINT = "none";
+
+	private final MeterRegistry meterRegistry;
+
+	public ConnectionHoldTimeDataSource(DataSource targetDataSource, MeterRegistry meterRegistry) {
+		super(targetDataSource);
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return track(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return track(super.getConnection(username, password));
+	}
+
+	private Connection track(Connection connection) {
+		Timer timer = Timer.builder(METRIC_NAME).tag("endpoint", getEndpoint()).register(this.meterRegistry);
+		Timer.Sample sample = Timer.start();
+		boolean[] closed = new boolean[1];
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+						case "equals":
+							return proxy == args[0];
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						default:
+							break;
+					}
+					if (method.getName().equals("close") && !closed[0]) {
+						closed[0] = true;
+						sample.stop(timer);
+					}
+					try {
+						return method.invoke(connection, args);
+					}
+					catch (InvocationTargetException e) {
+						throw e.getTargetException();
+					}
+				});
+	}
+
+	private static String getEndpoint() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return NO_ENDPOINT;
+		}
+		Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+				RequestAttributes.SCOPE_REQUEST);
+		return pattern != null ? pattern.toString() : NO_ENDPOINT;
+	}
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.configuration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration class for instrumenting the data source of the application
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Configuration(proxyBeanMethods = false)
+public class DataSourceConfiguration {
+
+	/**
+	 * Creates a {@link BeanPostProcessor} wrapping the data source into a
+	 * {@link ConnectionHoldTimeDataSource}, so every user of the pool is measured
+	 * @param meterRegistry meter registry, resolved once the data source is created
+	 * @return new {@link BeanPostProcessor} instance
+	 */
+	@Bean
+	public static BeanPostProcessor connectionHoldTimeDataSourcePostProcessor(
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionHoldTimeDataSource)) {
+					return new ConnectionHoldTimeDataSource(dataSource, meterRegistry.getObject());
+				}
+				return bean;
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Configuration class for setting up Redis messaging in the application
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Configuration(proxyBeanMethods = false)
+public class RedisConfiguration {
+
+	/**
+	 * Creates a {@link RedisMessageListenerContainer} bean for receiving Redis pub/sub
+	 * messages
+	 * @param connectionFactory Redis connection factory
+	 * @param virtualThreads whether messages are dispatched on virtual threads
+	 * @return new {@link RedisMessageListenerContainer} instance
+	 */
+	@Bean
+	public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(connectionFactory);
+		if (virtualThreads) {
+			SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("redis-listener-");
+			taskExecutor.setVirtualThreads(true);
+			container.setTaskExecutor(taskExecutor);
+		}
+		return container;
+	}
+
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.exception;
+
+/**
+ * Exception thrown when a request cannot be accepted because the resources serving it are
+ * saturated, so that the client should retry later
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+	public TooManyRequestsException(String message) {
+		super(message);
+	}
+
+}
@@ -25,6 +25,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.syschallenge.shared.exception.PermissionDeniedException;
+import com.syschallenge.shared.exception.TooManyRequestsException;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -50,6 +51,20 @@ public class GlobalExceptionHandler {
 				Map.entry("path", request.getServletPath()));
 	}
 
+	/**
+	 * Handles exceptions when a request is refused because the resources serving it are
+	 * saturated
+	 * @param exception the exception thrown when the resources are saturated
+	 * @return a standardized error response with HTTP status 429 (Too Many Requests)
+	 */
+	@ExceptionHandler(TooManyRequestsException.class)
+	@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+	public Map<String, Object> handleTooManyRequestsException(HttpServletRequest request,
+			TooManyRequestsException exception) {
+		return Map.ofEntries(Map.entry("error", "Too Many Requests"), Map.entry("message", exception.getMessage()),
+				Map.entry("path", request.getServletPath()));
+	}
+
 	/**
 	 * Handles exceptions thrown when request validation fails.
 	 *
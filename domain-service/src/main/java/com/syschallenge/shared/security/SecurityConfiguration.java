@@ -73,6 +73,8 @@ public class SecurityConfiguration {
 					.permitAll()
 					.requestMatchers(HttpMethod.GET, "/api/v1/user/{id}/photo")
 					.permitAll()
+					.requestMatchers(HttpMethod.GET, "/api/v1/user/{id}/photo/{objectKey}")
+					.permitAll()
 					.requestMatchers(HttpMethod.GET, "/api/v1/company/all")
 					.permitAll()
 					.requestMatchers(HttpMethod.GET, "/api/v1/company/{id}")
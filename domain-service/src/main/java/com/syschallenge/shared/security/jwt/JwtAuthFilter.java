@@ -27,7 +27,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.syschallenge.user.repository.UserRepository;
+import com.syschallenge.user.service.UserRoleEpochService;
+import com.syschallenge.user.service.UserRoleService;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -45,9 +46,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-	private final UserRepository userRepository;
+	private final UserRoleService userRoleService;
 
-	private final JwtUtil jwtUtil;
+	private final UserRoleEpochService userRoleEpochService;
+
+	private final VerifiedJwtCache verifiedJwtCache;
 
 	/**
 	 * Processes the JWT from the request and sets authentication in the security context
@@ -64,10 +67,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 		if (authorization != null && authorization.startsWith("Bearer ")) {
 			String token = authorization.substring(7).trim();
 
-			if (this.jwtUtil.isTokenValid(token) && !this.jwtUtil.isTokenExpired(token)) {
-				UUID id = UUID.fromString(this.jwtUtil.extractIdFromToken(token));
+			VerifiedJwt verifiedJwt = this.verifiedJwtCache.getOrVerify(token);
+			if (verifiedJwt != null) {
+				UUID id = UUID.fromString(verifiedJwt.subject());
 				UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(id, "",
-						List.of(new SimpleGrantedAuthority(this.userRepository.findRoleById(id).name())));
+						List.of(new SimpleGrantedAuthority(resolveRole(id, verifiedJwt))));
 				SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
 				securityContext.setAuthentication(authentication);
 				SecurityContextHolder.setContext(securityContext);
@@ -76,4 +80,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 		filterChain.doFilter(request, response);
 	}
 
+	/**
+	 * Resolves the role of the user, trusting the role claim of the token as long as the
+	 * token was issued with the current role epoch of the user
+	 * @param id the ID of the user
+	 * @param verifiedJwt verified claims of the token
+	 * @return role of the user
+	 */
+	private String resolveRole(UUID id, VerifiedJwt verifiedJwt) {
+		if (verifiedJwt.role() != null && verifiedJwt.roleEpoch() != null
+				&& verifiedJwt.roleEpoch() == this.userRoleEpochService.getEpoch(id)) {
+			return verifiedJwt.role();
+		}
+		return this.userRoleService.getRole(id).name();
+	}
+
 }
@@ -30,6 +30,9 @@ import org.springframework.stereotype.Component;
 import com.syschallenge.shared.security.UserDetails;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 
 /**
@@ -41,8 +44,23 @@ import io.jsonwebtoken.Jwts;
 @Component
 public class JwtUtil {
 
-	@Value("${jwt.secret}")
-	private String SECRET;
+	private static final String ROLE_CLAIM = "role";
+
+	private static final String ROLE_EPOCH_CLAIM = "role_epoch";
+
+	private final SecretKey signInKey;
+
+	private final JwtParser parser;
+
+	/**
+	 * Creates the signing key and the parser once, so they are shared by every request
+	 * @param secret Base64-encoded HMAC secret
+	 */
+	public JwtUtil(@Value("${jwt.secret}") String secret) {
+		byte[] bytes = Base64.getDecoder().decode(secret.getBytes(StandardCharsets.UTF_8));
+		this.signInKey = new SecretKeySpec(bytes, "HmacSHA256");
+		this.parser = Jwts.parser().verifyWith(this.signInKey).build();
+	}
 
 	/**
 	 * Generates a JWT token for the given user details
@@ -50,15 +68,37 @@ public class JwtUtil {
 	 * @return signed JWT token as a string
 	 */
 	public String generateToken(UserDetails userDetails) {
-		Date dateNow = new Date();
-		Date expirationDate = new Date(dateNow.getTime() + 1000L * 60 * 60 * 24 * 31);
+		return buildToken(userDetails).compact();
+	}
 
-		return Jwts.builder()
-			.subject(userDetails.getUsername())
-			.issuedAt(dateNow)
-			.expiration(expirationDate)
-			.signWith(getSignInKey())
-			.compact();
+	/**
+	 * Generates a JWT token for the given user details, carrying the user role as a
+	 * signed claim
+	 * @param userDetails user details for whom the token is created, with the role as its
+	 * single authority
+	 * @param roleEpoch role epoch of the user at the time the token is created
+	 * @return signed JWT token as a string
+	 */
+	public String generateToken(UserDetails userDetails, long roleEpoch) {
+		String role = userDetails.getAuthorities().iterator().next().getAuthority();
+		return buildToken(userDetails).claim(ROLE_CLAIM, role).claim(ROLE_EPOCH_CLAIM, roleEpoch).compact();
+	}
+
+	/**
+	 * Parses a JWT token once, verifying its signature, structure and expiration
+	 * @param token JWT token
+	 * @return verified claims of the token or null if the token is invalid or expired
+	 */
+	public VerifiedJwt verifyToken(String token) {
+		Claims claims;
+		try {
+			claims = extractAllClaims(token);
+		}
+		catch (JwtException | IllegalArgumentException ignored) {
+			return null;
+		}
+		return new VerifiedJwt(claims.getSubject(), claims.getExpiration(), claims.get(ROLE_CLAIM, String.class),
+				claims.get(ROLE_EPOCH_CLAIM, Long.class));
 	}
 
 	/**
@@ -77,7 +117,7 @@ public class JwtUtil {
 	 */
 	public boolean isTokenValid(String token) {
 		try {
-			Jwts.parser().verifyWith(getSignInKey()).build().parseSignedClaims(token).getPayload();
+			extractAllClaims(token);
 			return true;
 		}
 		catch (Exception ignored) {
@@ -103,19 +143,24 @@ public class JwtUtil {
 		return extractClaim(token, Claims::getSubject);
 	}
 
+	private JwtBuilder buildToken(UserDetails userDetails) {
+		Date dateNow = new Date();
+		Date expirationDate = new Date(dateNow.getTime() + 1000L * 60 * 60 * 24 * 31);
+
+		return Jwts.builder()
+			.subject(userDetails.getUsername())
+			.issuedAt(dateNow)
+			.expiration(expirationDate)
+			.signWith(this.signInKey);
+	}
+
 	private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
 		final Claims claims = extractAllClaims(token);
 		return claimsResolver.apply(claims);
 	}
 
 	private Claims extractAllClaims(String token) {
-		return Jwts.parser().verifyWith(getSignInKey()).build().parseSignedClaims(token).getPayload();
-	}
-
-	private SecretKey getSignInKey() {
-		byte[] bytes = Base64.getDecoder().decode(SECRET.getBytes(StandardCharsets.UTF_8));
-
-		return new SecretKeySpec(bytes, "HmacSHA256");
+		return this.parser.parseSignedClaims(token).getPayload();
 	}
 
 }
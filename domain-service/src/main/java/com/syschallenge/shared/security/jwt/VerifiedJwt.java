@@ -0,0 +1,30 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.security.jwt;
+
+import java.util.Date;
+
+/**
+ * Record representing the claims of a JWT token whose signature and expiration have
+ * already been verified. {@code role} and {@code roleEpoch} are null for tokens issued
+ * without a role claim
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+public record VerifiedJwt(String subject, Date expiration, String role, Long roleEpoch) {
+}
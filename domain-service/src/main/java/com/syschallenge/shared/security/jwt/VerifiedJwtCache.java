@@ -0,0 +1,93 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * In-process cache of already verified JWT tokens, keyed by the SHA-256 digest of the
+ * token.
+ *
+ * <p>
+ * Entries expire at the expiration of the token itself, and the least recently and
+ * frequently used ones are evicted once the size bound is reached. Hit, miss and eviction
+ * counts are published to the {@link MeterRegistry} under the {@code jwt.verified} cache
+ * name.
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Component
+public class VerifiedJwtCache {
+
+	private static final String CACHE_NAME = "jwt.verified";
+
+	private final JwtUtil jwtUtil;
+
+	private final Cache<String, VerifiedJwt> cache;
+
+	public VerifiedJwtCache(JwtUtil jwtUtil, MeterRegistry meterRegistry,
+			@Value("${jwt.cache.maximum-size:10000}") long maximumSize) {
+		this.jwtUtil = jwtUtil;
+		this.cache = Caffeine.newBuilder()
+			.maximumSize(maximumSize)
+			.expireAfter(Expiry.creating((String digest, VerifiedJwt verifiedJwt) -> untilExpiration(verifiedJwt)))
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+	}
+
+	/**
+	 * Returns the verified claims of a token, verifying it only if it is not cached yet
+	 * @param token JWT token
+	 * @return verified claims of the token or null if the token is invalid or expired
+	 */
+	public VerifiedJwt getOrVerify(String token) {
+		return this.cache.get(digest(token), digest -> this.jwtUtil.verifyToken(token));
+	}
+
+	private static Duration untilExpiration(VerifiedJwt verifiedJwt) {
+		Duration ttl = Duration.between(Instant.now(), verifiedJwt.expiration().toInstant());
+		return ttl.isNegative() ? Duration.ZERO : ttl;
+	}
+
+	private static String digest(String token) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
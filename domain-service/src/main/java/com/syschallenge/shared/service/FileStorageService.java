@@ -16,6 +16,10 @@
 
 package com.syschallenge.shared.service;
 
+import java.time.Duration;
+
+import org.springframework.core.io.Resource;
+
 /**
  * Service interface for handling file storage operations
  *
@@ -25,12 +29,24 @@ package com.syschallenge.shared.service;
 public interface FileStorageService {
 
 	/**
-	 * Downloads a file from the specified bucket
+	 * Opens a file from the specified bucket for streaming, without reading it into
+	 * memory. The returned resource knows the length of the file and can be read once;
+	 * its stream has to be closed by the caller
+	 * @param bucketName the name of the bucket containing the file
+	 * @param fileName the name of the file to download
+	 * @return a resource streaming the file content
+	 */
+	Resource downloadFileAsResource(String bucketName, String fileName);
+
+	/**
+	 * Generates a URL through which the file can be downloaded directly from the storage
+	 * without credentials, until the URL expires
 	 * @param bucketName the name of the bucket containing the file
 	 * @param fileName the name of the file to download
-	 * @return a byte array containing the downloaded file content
+	 * @param ttl how long the URL stays valid
+	 * @return the URL of the file
 	 */
-	byte[] downloadFile(String bucketName, String fileName);
+	String generatePresignedUrl(String bucketName, String fileName, Duration ttl);
 
 	/**
 	 * Uploads a file to the specified bucket
@@ -41,6 +57,15 @@ public interface FileStorageService {
 	 */
 	String uploadFile(String bucketName, byte[] file, String extension);
 
+	/**
+	 * Uploads a file under the given name to the specified bucket, replacing any file of
+	 * the same name
+	 * @param bucketName the name of the bucket where the file will be uploaded
+	 * @param fileName the name of the file
+	 * @param file the file to upload
+	 */
+	void putFile(String bucketName, String fileName, byte[] file);
+
 	/**
 	 * Deletes a file from the specified bucket
 	 * @param bucketName the name of the bucket containing the file
@@ -0,0 +1,59 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.service;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service for handling version counters of mutable resources, Redis-held counters that
+ * are bumped on every mutation so that all nodes agree on the current version. Versions
+ * are used to build strong ETags for conditional requests
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+public class VersionService {
+
+	private static final String VERSION_KEY_PREFIX = "version:";
+
+	private final StringRedisTemplate redisTemplate;
+
+	/**
+	 * Gets the current version of a resource
+	 * @param name the name of the resource
+	 * @return current version, {@code 0} if the resource has never changed
+	 */
+	public long getVersion(String name) {
+		String version = this.redisTemplate.opsForValue().get(VERSION_KEY_PREFIX + name);
+		return version != null ? Long.parseLong(version) : 0;
+	}
+
+	/**
+	 * Bumps the version of a resource
+	 * @param name the name of the resource
+	 * @return new version
+	 */
+	public long bumpVersion(String name) {
+		return this.redisTemplate.opsForValue().increment(VERSION_KEY_PREFIX + name);
+	}
+
+}
@@ -16,14 +16,17 @@
 
 package com.syschallenge.shared.service.impl;
 
+import java.time.Duration;
 import java.util.UUID;
 
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
 import com.syschallenge.shared.service.FileStorageService;
 
 import lombok.RequiredArgsConstructor;
-import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
@@ -31,6 +34,8 @@ import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
 /**
  * Service implementation for handling file storage operations using AWS S3
@@ -44,18 +49,39 @@ public class AwsS3FileStorageService implements FileStorageService {
 
 	private final S3Client client;
 
+	private final S3Presigner presigner;
+
 	@Override
-	public byte[] downloadFile(String bucketName, String fileName) {
+	public Resource downloadFileAsResource(String bucketName, String fileName) {
 		try {
-			ResponseBytes<GetObjectResponse> objectBytes = this.client
-				.getObjectAsBytes(GetObjectRequest.builder().bucket(bucketName).key(fileName).build());
-			return objectBytes.asByteArray();
+			ResponseInputStream<GetObjectResponse> object = this.client
+				.getObject(GetObjectRequest.builder().bucket(bucketName).key(fileName).build());
+			long contentLength = object.response().contentLength();
+			return new InputStreamResource(object) {
+
+				@Override
+				public long contentLength() {
+					return contentLength;
+				}
+
+			};
 		}
 		catch (S3Exception e) {
 			throw new RuntimeException("File download error from S3", e);
 		}
 	}
 
+	@Override
+	public String generatePresignedUrl(String bucketName, String fileName, Duration ttl) {
+		return this.presigner
+			.presignGetObject(GetObjectPresignRequest.builder()
+				.signatureDuration(ttl)
+				.getObjectRequest(GetObjectRequest.builder().bucket(bucketName).key(fileName).build())
+				.build())
+			.url()
+			.toString();
+	}
+
 	@Override
 	public String uploadFile(String bucketName, byte[] file, String extension) {
 		String fileName = UUID.randomUUID() + "-" + System.currentTimeMillis() + extension;
@@ -64,6 +90,12 @@ public class AwsS3FileStorageService implements FileStorageService {
 		return fileName;
 	}
 
+	@Override
+	public void putFile(String bucketName, String fileName, byte[] file) {
+		this.client.putObject(PutObjectRequest.builder().bucket(bucketName).key(fileName).build(),
+				RequestBody.fromBytes(file));
+	}
+
 	@Override
 	public void deleteFile(String bucketName, String fileName) {
 		try {
@@ -0,0 +1,56 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.syschallenge.shared.util;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+
+/**
+ * Utility class for creating the executors that load the misses of asynchronous caches,
+ * following the {@code spring.threads.virtual.enabled} mode of the application.
+ *
+ * <p>
+ * With virtual threads every miss is loaded on its own virtual thread, without holding a
+ * cache lock over the load. Otherwise misses are loaded synchronously on the calling
+ * thread, like the misses of the synchronous caches.
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+public final class CacheLoaderUtil {
+
+	private CacheLoaderUtil() {
+	}
+
+	/**
+	 * Creates an executor loading cache misses
+	 * @param threadNamePrefix prefix of the virtual thread names
+	 * @param virtual whether to load misses on virtual threads instead of the calling
+	 * thread
+	 * @return new executor
+	 */
+	public static Executor create(String threadNamePrefix, boolean virtual) {
+		if (virtual) {
+			SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+			executor.setVirtualThreads(true);
+			return executor;
+		}
+		return new SyncTaskExecutor();
+	}
+
+}
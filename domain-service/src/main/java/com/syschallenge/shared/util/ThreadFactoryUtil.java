@@ -0,0 +1,49 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.util;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Utility class for creating the thread factories of internal executors, following the
+ * {@code spring.threads.virtual.enabled} mode of the application
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+public final class ThreadFactoryUtil {
+
+	private ThreadFactoryUtil() {
+	}
+
+	/**
+	 * Creates a thread factory naming its threads with a prefix
+	 * @param threadNamePrefix prefix of the thread names
+	 * @param virtual whether to create virtual threads instead of platform threads
+	 * @return new thread factory
+	 */
+	public static ThreadFactory create(String threadNamePrefix, boolean virtual) {
+		if (virtual) {
+			return new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory();
+		}
+		return new CustomizableThreadFactory(threadNamePrefix);
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.util;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+import net.coobird.thumbnailator.Thumbnails;
+
+/**
+ * Utility class for resizing images
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+public final class ThumbnailUtil {
+
+	private ThumbnailUtil() {
+	}
+
+	/**
+	 * Checks whether an image is readable in a format, by reading its dimensions without
+	 * decoding its pixels
+	 * @param image encoded image to check
+	 * @param format format the image is expected to be in, such as {@code png}
+	 * @return true if the image is readable in the format, false otherwise
+	 */
+	public static boolean isReadable(byte[] image, String format) {
+		return readDimension(image, format) != null;
+	}
+
+	/**
+	 * Resizes an image to several square bounds, keeping its aspect ratio. The image is
+	 * decoded once and scaled to the largest bounds, and every smaller variant is scaled
+	 * from the previous one. Images are never upscaled, so the variants with bounds
+	 * larger than the image keep its dimensions
+	 * @param image encoded image to resize
+	 * @param sizes bounds of the variants
+	 * @return resized variants by their bounds, empty if there are no bounds
+	 */
+	public static Map<Integer, BufferedImage> resize(byte[] image, Collection<Integer> sizes) {
+		if (sizes.isEmpty()) {
+			return Map.of();
+		}
+		Dimension dimension = readDimension(image, null);
+		if (dimension == null) {
+			throw new IllegalArgumentException("Unreadable image");
+		}
+		int imageSize = Math.max(dimension.width, dimension.height);
+		List<Integer> descendingSizes = sizes.stream().distinct().sorted(Comparator.reverseOrder()).toList();
+		Map<Integer, BufferedImage> variants = new HashMap<>();
+		try {
+			int bounds = Math.min(descendingSizes.get(0), imageSize);
+			BufferedImage previous = Thumbnails.of(new ByteArrayInputStream(image))
+				.size(bounds, bounds)
+				.asBufferedImage();
+			variants.put(descendingSizes.get(0), previous);
+			for (int size : descendingSizes.subList(1, descendingSizes.size())) {
+				if (size < Math.max(previous.getWidth(), previous.getHeight())) {
+					previous = Thumbnails.of(previous).size(size, size).asBufferedImage();
+				}
+				variants.put(size, previous);
+			}
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return variants;
+	}
+
+	/**
+	 * Encodes an image
+	 * @param image image to encode
+	 * @param format format to encode the image in, such as {@code png}
+	 * @return encoded image
+	 */
+	public static byte[] encode(BufferedImage image, String format) {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			if (!ImageIO.write(image, format, outputStream)) {
+				throw new IllegalArgumentException("No image writer for format " + format);
+			}
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return outputStream.toByteArray();
+	}
+
+	private static Dimension readDimension(byte[] image, String format) {
+		try (ImageInputStream inputStream = new MemoryCacheImageInputStream(new ByteArrayInputStream(image))) {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(inputStream);
+			if (!readers.hasNext()) {
+				return null;
+			}
+			ImageReader reader = readers.next();
+			try {
+				if (format != null && !Arrays.asList(reader.getOriginatingProvider().getFormatNames())
+					.contains(format.toLowerCase())) {
+					return null;
+				}
+				reader.setInput(inputStream, true, true);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				return width > 0 && height > 0 ? new Dimension(width, height) : null;
+			}
+			finally {
+				reader.dispose();
+			}
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
+
+}
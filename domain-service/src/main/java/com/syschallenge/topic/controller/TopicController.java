@@ -16,9 +16,9 @@
 
 package com.syschallenge.topic.controller;
 
-import java.util.Collection;
 import java.util.UUID;
 
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -29,8 +29,10 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.syschallenge.topic.dto.TopicDto;
+import com.syschallenge.topic.model.TopicCatalogue;
 import com.syschallenge.topic.payload.CreateTopicRequest;
 import com.syschallenge.topic.payload.UpdateTopicRequest;
 import com.syschallenge.topic.service.TopicService;
@@ -51,12 +53,18 @@ public class TopicController {
 	private final TopicService topicService;
 
 	/**
-	 * Endpoint for retrieving a collection of topics
-	 * @return collection of topics
+	 * Endpoint for retrieving a collection of topics, written straight from the
+	 * pre-serialized topics catalogue
+	 * @param request the current request, checked against the catalogue entity tag
+	 * @return JSON collection of topics or null if the client copy is up to date
 	 */
-	@GetMapping("/all")
-	public Collection<TopicDto> getAll() {
-		return this.topicService.getAll();
+	@GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+	public byte[] getAll(WebRequest request) {
+		TopicCatalogue catalogue = this.topicService.getCatalogue();
+		if (request.checkNotModified(catalogue.etag())) {
+			return null;
+		}
+		return catalogue.json();
 	}
 
 	/**
@@ -0,0 +1,41 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.topic.model;
+
+import java.util.List;
+
+import com.syschallenge.topic.dto.TopicDto;
+
+/**
+ * Immutable snapshot of all topics together with their JSON representation, serialized
+ * once when the snapshot is built, and the topics version it was built at. {@code json}
+ * is shared by every reader and must not be modified
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+public record TopicCatalogue(List<TopicDto> topics, byte[] json, long version) {
+
+	/**
+	 * Gets the entity tag of the snapshot
+	 * @return entity tag identifying the topics version of the snapshot
+	 */
+	public String etag() {
+		return "topics-" + this.version;
+	}
+
+}
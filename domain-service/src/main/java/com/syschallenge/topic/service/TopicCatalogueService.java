@@ -0,0 +1,216 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.topic.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.syschallenge.shared.service.VersionService;
+import com.syschallenge.shared.util.ThreadFactoryUtil;
+import com.syschallenge.topic.dto.TopicDto;
+import com.syschallenge.topic.mapper.TopicToTopicDtoMapper;
+import com.syschallenge.topic.model.TopicCatalogue;
+import com.syschallenge.topic.property.TopicCatalogueProperty;
+import com.syschallenge.topic.repository.TopicRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service holding the in-memory snapshot of the topics catalogue.
+ *
+ * <p>
+ * The snapshot is loaded on first use and rebuilt as a whole on every topic change, so
+ * readers always see either the previous or the next catalogue. Changes are broadcast
+ * through Redis pub/sub, so every other node rebuilds its snapshot as well. Each snapshot
+ * carries the topics version it was built at, used as its entity tag. A node that missed
+ * a message, such as during a Redis reconnect, catches up by comparing the version of its
+ * snapshot with the current one every {@code topic.catalogue.version-check-interval}.
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+public class TopicCatalogueService implements MessageListener {
+
+	/**
+	 * Name of the topics version counter
+	 */
+	public static final String VERSION_NAME = "topics";
+
+	private static final String INVALIDATION_CHANNEL = "topic:catalogue:invalidation";
+
+	private final String nodeId = UUID.randomUUID().toString();
+
+	private final TopicRepository topicRepository;
+
+	private final TopicToTopicDtoMapper topicToTopicDtoMapper;
+
+	private final ObjectMapper objectMapper;
+
+	private final StringRedisTemplate redisTemplate;
+
+	private final VersionService versionService;
+
+	private final AtomicReference<TopicCatalogue> catalogue = new AtomicReference<>();
+
+	private final ReentrantLock rebuildLock = new ReentrantLock();
+
+	private final TopicCatalogueProperty properties;
+
+	private final ScheduledExecutorService versionChecker;
+
+	private final Counter versionCheckErrors;
+
+	public TopicCatalogueService(TopicRepository topicRepository, TopicToTopicDtoMapper topicToTopicDtoMapper,
+			ObjectMapper objectMapper, StringRedisTemplate redisTemplate, VersionService versionService,
+			RedisMessageListenerContainer listenerContainer, MeterRegistry meterRegistry,
+			TopicCatalogueProperty properties) {
+		this.topicRepository = topicRepository;
+		this.topicToTopicDtoMapper = topicToTopicDtoMapper;
+		this.objectMapper = objectMapper;
+		this.redisTemplate = redisTemplate;
+		this.versionService = versionService;
+		this.properties = properties;
+		this.versionChecker = Executors
+			.newSingleThreadScheduledExecutor(ThreadFactoryUtil.create("topic-catalogue-version-check-", false));
+		this.versionCheckErrors = Counter.builder("topic.catalogue.version-check.errors").register(meterRegistry);
+		listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+	}
+
+	/**
+	 * Starts checking the version of the snapshot once the application is ready
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		long interval = this.properties.versionCheckInterval().toMillis();
+		this.versionChecker.scheduleWithFixedDelay(() -> {
+			try {
+				checkVersion();
+			}
+			catch (RuntimeException e) {
+				// a failed check must not cancel the following ones
+				this.versionCheckErrors.increment();
+			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Gets the current snapshot of the topics catalogue
+	 * @return current topics catalogue
+	 */
+	public TopicCatalogue getCatalogue() {
+		TopicCatalogue current = this.catalogue.get();
+		return current != null ? current : load();
+	}
+
+	/**
+	 * Rebuilds the snapshot if it was built at an older topics version than the current
+	 * one, which happens when a change notification was missed
+	 */
+	public void checkVersion() {
+		TopicCatalogue current = this.catalogue.get();
+		if (current != null && current.version() < this.versionService.getVersion(VERSION_NAME)) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Rebuilds the snapshot after a topic change and notifies other nodes
+	 */
+	public void refresh() {
+		rebuild();
+		this.redisTemplate.convertAndSend(INVALIDATION_CHANNEL, this.nodeId);
+	}
+
+	/**
+	 * Rebuilds the snapshot after a topic change made on another node
+	 * @param message message containing the ID of the node the change was made on
+	 * @param pattern pattern matching the channel
+	 */
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		if (!this.nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Stops checking the version of the snapshot
+	 */
+	@PreDestroy
+	public void shutdown() {
+		this.versionChecker.shutdownNow();
+	}
+
+	private TopicCatalogue load() {
+		this.rebuildLock.lock();
+		try {
+			// the snapshot may have been built while waiting for the lock
+			TopicCatalogue current = this.catalogue.get();
+			return current != null ? current : rebuild();
+		}
+		finally {
+			this.rebuildLock.unlock();
+		}
+	}
+
+	private TopicCatalogue rebuild() {
+		// a lock rather than synchronized, which would pin a virtual thread to its
+		// carrier for the whole database read
+		this.rebuildLock.lock();
+		try {
+			// read the version before the topics, so the snapshot is never labelled
+			// newer than its content
+			long version = this.versionService.getVersion(VERSION_NAME);
+			List<TopicDto> topics = List
+				.copyOf(this.topicToTopicDtoMapper.topicListToTopicDtoList(this.topicRepository.findAll()));
+			byte[] json;
+			try {
+				json = this.objectMapper.writeValueAsBytes(topics);
+			}
+			catch (JsonProcessingException e) {
+				throw new RuntimeException(e);
+			}
+			TopicCatalogue rebuilt = new TopicCatalogue(topics, json, version);
+			this.catalogue.set(rebuilt);
+			return rebuilt;
+		}
+		finally {
+			this.rebuildLock.unlock();
+		}
+	}
+
+}
@@ -23,9 +23,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.syschallenge.shared.service.VersionService;
+import com.syschallenge.shared.util.TransactionUtil;
 import com.syschallenge.topic.dto.TopicDto;
 import com.syschallenge.topic.mapper.TopicToTopicDtoMapper;
 import com.syschallenge.topic.model.Topic;
+import com.syschallenge.topic.model.TopicCatalogue;
 import com.syschallenge.topic.payload.CreateTopicRequest;
 import com.syschallenge.topic.payload.UpdateTopicRequest;
 import com.syschallenge.topic.repository.TopicRepository;
@@ -46,12 +49,24 @@ public class TopicService {
 
 	private final TopicToTopicDtoMapper topicToTopicDtoMapper;
 
+	private final TopicCatalogueService topicCatalogueService;
+
+	private final VersionService versionService;
+
 	/**
 	 * Get list of topics
 	 * @return list of topic DTOs
 	 */
 	public Collection<TopicDto> getAll() {
-		return this.topicToTopicDtoMapper.topicListToTopicDtoList(this.topicRepository.findAll());
+		return this.topicCatalogueService.getCatalogue().topics();
+	}
+
+	/**
+	 * Get the current topics catalogue, with topics already serialized to JSON
+	 * @return current topics catalogue
+	 */
+	public TopicCatalogue getCatalogue() {
+		return this.topicCatalogueService.getCatalogue();
 	}
 
 	/**
@@ -72,6 +87,7 @@ public class TopicService {
 	public TopicDto create(CreateTopicRequest request) {
 		Topic newTopic = Topic.builder().title(request.title()).build();
 		newTopic = this.topicRepository.save(newTopic);
+		TransactionUtil.afterCommit(this::onTopicsChanged);
 		return this.topicToTopicDtoMapper.topicToTopicDto(newTopic);
 	}
 
@@ -84,7 +100,9 @@ public class TopicService {
 	@Transactional(isolation = Isolation.READ_COMMITTED)
 	public TopicDto update(UUID id, UpdateTopicRequest request) {
 		Topic topicToUpdate = Topic.builder().id(id).title(request.title()).build();
-		return this.topicToTopicDtoMapper.topicToTopicDto(this.topicRepository.update(topicToUpdate));
+		Topic updatedTopic = this.topicRepository.update(topicToUpdate);
+		TransactionUtil.afterCommit(this::onTopicsChanged);
+		return this.topicToTopicDtoMapper.topicToTopicDto(updatedTopic);
 	}
 
 	/**
@@ -94,6 +112,12 @@ public class TopicService {
 	@Transactional(isolation = Isolation.READ_COMMITTED)
 	public void delete(UUID id) {
 		this.topicRepository.deleteById(id);
+		TransactionUtil.afterCommit(this::onTopicsChanged);
+	}
+
+	private void onTopicsChanged() {
+		this.versionService.bumpVersion(TopicCatalogueService.VERSION_NAME);
+		this.topicCatalogueService.refresh();
 	}
 
 }
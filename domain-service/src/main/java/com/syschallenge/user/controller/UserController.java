@@ -16,18 +16,22 @@
 
 package com.syschallenge.user.controller;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.net.URI;
 import java.util.UUID;
 
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import com.syschallenge.user.payload.response.PhotoResponse;
+import com.syschallenge.user.property.UserPhotoProperty;
 import com.syschallenge.user.service.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -45,49 +49,106 @@ public class UserController {
 
 	private final UserService userService;
 
+	private final UserPhotoProperty userPhotoProperty;
+
 	/**
-	 * Endpoint for retrieving photo for a specific user
+	 * Endpoint for retrieving the current photo of a specific user. The response has to
+	 * be revalidated on every use, which is answered with 304 without touching the
+	 * storage while the photo stays the same
 	 * @param id the UUID of the user to fetch photo for
+	 * @param size requested size of the photo, the closest stored variant is served
+	 * @param ifNoneMatch entity tags of the photo cached by the client
 	 * @return photo
 	 */
 	@GetMapping("/{id}/photo")
-	public ResponseEntity<byte[]> getPhoto(@PathVariable("id") UUID id) {
-		PhotoResponse photo = this.userService.getPhoto(id);
-		if (photo.photo() == null)
+	public ResponseEntity<Resource> getPhoto(@PathVariable("id") UUID id,
+			@RequestParam(name = "size", required = false) Integer size,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		String objectKey = this.userService.getPhotoObjectKey(id, size);
+		if (objectKey == null)
 			return ResponseEntity.notFound().build();
-		String contentType;
-		try {
-			contentType = Files.probeContentType(Path.of(photo.photoFileName()));
-		}
-		catch (IOException e) {
-			throw new RuntimeException(e);
-		}
-		MediaType mediaType = contentType != null ? MediaType.parseMediaType(contentType) : MediaType.IMAGE_JPEG;
-		return ResponseEntity.ok().contentType(mediaType).body(photo.photo());
+		return photo(objectKey, ifNoneMatch, CacheControl.noCache(), CacheControl.noCache());
 	}
 
 	/**
-	 * Endpoint for uploading photo for a specific user
+	 * Endpoint for retrieving a photo of a specific user by its object key. Object keys
+	 * are unique per upload, so the photo is served as immutable and can be cached by
+	 * clients and CDNs for {@code user.photo.cache-max-age}
 	 * @param id the UUID of the user to fetch photo for
+	 * @param objectKey the object key of the photo
+	 * @param size requested size of the photo, the closest stored variant is served
+	 * @param ifNoneMatch entity tags of the photo cached by the client
+	 * @return photo
+	 */
+	@GetMapping("/{id}/photo/{objectKey}")
+	public ResponseEntity<Resource> getPhotoByObjectKey(@PathVariable("id") UUID id,
+			@PathVariable("objectKey") String objectKey, @RequestParam(name = "size", required = false) Integer size,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		if (!objectKey.equals(this.userService.getPhotoObjectKey(id)))
+			return ResponseEntity.notFound().build();
+		String variantObjectKey = this.userService.getPhotoObjectKey(id, size);
+		// a redirect is only cached for a part of the lifetime of the presigned URL
+		return photo(variantObjectKey, ifNoneMatch,
+				CacheControl.maxAge(this.userPhotoProperty.cacheMaxAge()).cachePublic().immutable(),
+				CacheControl.maxAge(this.userPhotoProperty.presignedUrlTtl().dividedBy(2)).cachePublic());
+	}
+
+	/**
+	 * Endpoint for uploading photo for a specific user. The photo is processed in the
+	 * background, so the response is accepted without a body and points to the current
+	 * photo of the user
+	 * @param id the UUID of the user to upload photo for
 	 * @param photoFile photo to upload
 	 * @param auth the authentication token containing the requester's identity
-	 * @return photo
+	 * @return accepted response with the location of the photo
 	 */
 	@PostMapping("/{id}/photo")
-	public ResponseEntity<byte[]> uploadPhoto(@PathVariable("id") UUID id, @RequestPart("file") MultipartFile photoFile,
+	public ResponseEntity<Void> uploadPhoto(@PathVariable("id") UUID id, @RequestPart("file") MultipartFile photoFile,
 			UsernamePasswordAuthenticationToken auth) {
-		PhotoResponse photo = this.userService.uploadPhoto(id, photoFile, UUID.fromString(auth.getName()));
-		if (photo.photo() == null)
-			return ResponseEntity.notFound().build();
-		String contentType;
-		try {
-			contentType = Files.probeContentType(Path.of(photo.photoFileName()));
+		this.userService.uploadPhoto(id, photoFile, UUID.fromString(auth.getName()));
+		return ResponseEntity.accepted()
+			.location(ServletUriComponentsBuilder.fromCurrentRequestUri().build().toUri())
+			.build();
+	}
+
+	private ResponseEntity<Resource> photo(String objectKey, String ifNoneMatch, CacheControl cacheControl,
+			CacheControl redirectCacheControl) {
+		String eTag = "\"" + objectKey + "\"";
+		if (isNotModified(ifNoneMatch, eTag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
 		}
-		catch (IOException e) {
-			throw new RuntimeException(e);
+		if (this.userPhotoProperty.redirectEnabled()) {
+			return ResponseEntity.status(HttpStatus.FOUND)
+				.location(URI.create(this.userService.getPhotoUrl(objectKey, this.userPhotoProperty.presignedUrlTtl())))
+				.cacheControl(redirectCacheControl)
+				.build();
 		}
-		MediaType mediaType = contentType != null ? MediaType.parseMediaType(contentType) : MediaType.IMAGE_JPEG;
-		return ResponseEntity.ok().contentType(mediaType).body(photo.photo());
+		// served from the photo cache or streamed from the storage
+		return ResponseEntity.ok()
+			.contentType(getMediaType(objectKey))
+			.eTag(eTag)
+			.cacheControl(cacheControl)
+			.body(this.userService.downloadPhoto(objectKey));
+	}
+
+	private static boolean isNotModified(String ifNoneMatch, String eTag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			candidate = candidate.trim();
+			if (candidate.startsWith("W/")) {
+				candidate = candidate.substring(2);
+			}
+			if (candidate.equals("*") || candidate.equals(eTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static MediaType getMediaType(String objectKey) {
+		return MediaTypeFactory.getMediaType(objectKey).orElse(MediaType.IMAGE_JPEG);
 	}
 
 }
@@ -45,4 +45,7 @@ public class UserPhoto {
 	@Column("object_key")
 	private String objectKey;
 
+	@Column("variant_sizes")
+	private Integer[] variantSizes;
+
 }
@@ -0,0 +1,30 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user.model;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Record representing the profile of a user as rendered in user headers
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+public record UserProfile(UUID id, String username, String name, String photoObjectKey, List<Integer> photoVariantSizes,
+		UserRole role) {
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user.property;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for the background processing of uploaded user photos
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ConfigurationProperties("user.photo-processing")
+public record UserPhotoProcessingProperty(@DefaultValue("32") int queueCapacity, @DefaultValue( {
+		"48", "96", "200", "400" }) List<Integer> variantSizes){
+
+	public UserPhotoProcessingProperty {
+		if (variantSizes.isEmpty() || variantSizes.stream().anyMatch(size -> size == null || size <= 0)) {
+			throw new IllegalArgumentException("user.photo-processing.variant-sizes must be non-empty and positive");
+		}
+	}
+
+}
@@ -23,6 +23,8 @@ import org.springframework.stereotype.Repository;
 
 import com.syschallenge.public_.enums.UserLinkedSocialType;
 import com.syschallenge.public_.tables.UsersLinkedSocialTable;
+import com.syschallenge.public_.tables.UsersTable;
+import com.syschallenge.user.model.User;
 import com.syschallenge.user.model.UserLinkedSocial;
 
 import lombok.RequiredArgsConstructor;
@@ -55,26 +57,21 @@ public class UserLinkedSocialRepository {
 	}
 
 	/**
-	 * Checks if a user linked social account exists by its verification token
-	 * @param verification verification token to check
-	 * @return {@code true} if an account with the given verification token exists,
-	 * {@code false} otherwise
+	 * Finds the user a social account is linked to, in a single query over the unique
+	 * {@code (type, verification)} index
+	 * @param type type of the social account
+	 * @param verification verification token of the social account
+	 * @return user entity or null if the social account is not linked to any user
 	 */
-	public boolean existsByVerification(String verification) {
-		return this.ctx.fetchExists(this.ctx.selectFrom(UsersLinkedSocialTable.USERS_LINKED_SOCIAL_TABLE)
-			.where(UsersLinkedSocialTable.USERS_LINKED_SOCIAL_TABLE.VERIFICATION.eq(verification)));
-	}
-
-	/**
-	 * Finds the user id associated with a specific verification token
-	 * @param verification verification token to search for
-	 * @return UUID of the user associated with the given verification token
-	 */
-	public UUID findUserIdByVerification(String verification) {
-		return this.ctx.select(UsersLinkedSocialTable.USERS_LINKED_SOCIAL_TABLE.USER_ID)
+	public User findUserByTypeAndVerification(com.syschallenge.user.model.UserLinkedSocialType type,
+			String verification) {
+		return this.ctx.select(UsersTable.USERS_TABLE.fields())
 			.from(UsersLinkedSocialTable.USERS_LINKED_SOCIAL_TABLE)
-			.where(UsersLinkedSocialTable.USERS_LINKED_SOCIAL_TABLE.VERIFICATION.eq(verification))
-			.fetchOneInto(UUID.class);
+			.join(UsersTable.USERS_TABLE)
+			.on(UsersTable.USERS_TABLE.ID.eq(UsersLinkedSocialTable.USERS_LINKED_SOCIAL_TABLE.USER_ID))
+			.where(UsersLinkedSocialTable.USERS_LINKED_SOCIAL_TABLE.TYPE.eq(UserLinkedSocialType.valueOf(type.name())))
+			.and(UsersLinkedSocialTable.USERS_LINKED_SOCIAL_TABLE.VERIFICATION.eq(verification))
+			.fetchOneInto(User.class);
 	}
 
 }
@@ -39,30 +39,62 @@ public class UserPhotoRepository {
 	private final DSLContext ctx;
 
 	/**
-	 * Finds the objectKey associated with user id
+	 * Finds the photo of a user
 	 * @param userId user id to search for
-	 * @return objectKey of the user photo associated with the given userId
+	 * @return user photo associated with the given userId
 	 */
-	public String findObjectKeyByUserId(UUID userId) {
-		return this.ctx.select(UsersPhotoTable.USERS_PHOTO_TABLE.OBJECT_KEY)
-			.from(UsersPhotoTable.USERS_PHOTO_TABLE)
+	public UserPhoto findByUserId(UUID userId) {
+		return this.ctx.selectFrom(UsersPhotoTable.USERS_PHOTO_TABLE)
 			.where(UsersPhotoTable.USERS_PHOTO_TABLE.USER_ID.eq(userId))
-			.fetchOneInto(String.class);
+			.fetchOneInto(UserPhoto.class);
 	}
 
 	/**
-	 * Updates a user photo objectKey based on the user id
+	 * Updates a user photo objectKey based on the user id. The variants of the previous
+	 * photo are dropped
 	 * @param userId user id to update objectKey
 	 * @return updated user photo id objectKey
 	 */
 	public String updateObjectKeyByUserId(String objectKey, UUID userId) {
 		return this.ctx.update(UsersPhotoTable.USERS_PHOTO_TABLE)
 			.set(UsersPhotoTable.USERS_PHOTO_TABLE.OBJECT_KEY, objectKey)
+			.set(UsersPhotoTable.USERS_PHOTO_TABLE.VARIANT_SIZES, new Integer[0])
 			.where(UsersPhotoTable.USERS_PHOTO_TABLE.USER_ID.eq(userId))
 			.returningResult(UsersPhotoTable.USERS_PHOTO_TABLE)
 			.fetchOneInto(String.class);
 	}
 
+	/**
+	 * Replaces the objectKey and the variants of a user photo, if the photo still has the
+	 * expected objectKey
+	 * @param userId user id to update objectKey
+	 * @param expectedObjectKey objectKey the user photo is expected to have
+	 * @param objectKey new objectKey of the user photo
+	 * @param variantSizes sizes of the variants stored for the new objectKey
+	 * @return true if the objectKey was replaced, false otherwise
+	 */
+	public boolean replaceObjectKey(UUID userId, String expectedObjectKey, String objectKey, Integer[] variantSizes) {
+		return this.ctx.update(UsersPhotoTable.USERS_PHOTO_TABLE)
+			.set(UsersPhotoTable.USERS_PHOTO_TABLE.OBJECT_KEY, objectKey)
+			.set(UsersPhotoTable.USERS_PHOTO_TABLE.VARIANT_SIZES, variantSizes)
+			.where(UsersPhotoTable.USERS_PHOTO_TABLE.USER_ID.eq(userId))
+			.and(UsersPhotoTable.USERS_PHOTO_TABLE.OBJECT_KEY.eq(expectedObjectKey))
+			.execute() == 1;
+	}
+
+	/**
+	 * Deletes a user photo, if the photo still has the expected objectKey
+	 * @param userId user id to delete the photo of
+	 * @param objectKey objectKey the user photo is expected to have
+	 * @return true if the photo was deleted, false otherwise
+	 */
+	public boolean deleteByUserIdAndObjectKey(UUID userId, String objectKey) {
+		return this.ctx.deleteFrom(UsersPhotoTable.USERS_PHOTO_TABLE)
+			.where(UsersPhotoTable.USERS_PHOTO_TABLE.USER_ID.eq(userId))
+			.and(UsersPhotoTable.USERS_PHOTO_TABLE.OBJECT_KEY.eq(objectKey))
+			.execute() == 1;
+	}
+
 	/**
 	 * Saves a new user photo
 	 * @param userPhoto user linked social entity to save
@@ -76,15 +108,4 @@ public class UserPhotoRepository {
 			.fetchOneInto(UserPhoto.class);
 	}
 
-	/**
-	 * Checks if a user photo exists for the given user id.
-	 * @param userId the ID of the user
-	 * @return true if a record exists, false otherwise
-	 */
-	public boolean existsByUserId(UUID userId) {
-		return this.ctx.fetchExists(this.ctx.selectOne()
-			.from(UsersPhotoTable.USERS_PHOTO_TABLE)
-			.where(UsersPhotoTable.USERS_PHOTO_TABLE.USER_ID.eq(userId)));
-	}
-
 }
@@ -16,13 +16,17 @@
 
 package com.syschallenge.user.repository;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.jooq.DSLContext;
 import org.springframework.stereotype.Repository;
 
+import com.syschallenge.public_.tables.UsersBasicInfoTable;
+import com.syschallenge.public_.tables.UsersPhotoTable;
 import com.syschallenge.public_.tables.UsersTable;
 import com.syschallenge.user.model.User;
+import com.syschallenge.user.model.UserProfile;
 import com.syschallenge.user.model.UserRole;
 
 import lombok.RequiredArgsConstructor;
@@ -90,4 +94,38 @@ public class UserRepository {
 			.fetchOneInto(UserRole.class);
 	}
 
+	/**
+	 * Finds the profile of a user by their id, joining the basic info and the photo of
+	 * the user in a single query
+	 * @param id UUID of the user to find
+	 * @return profile associated with the given id or null if the user does not exist
+	 */
+	public UserProfile findProfileById(UUID id) {
+		return this.ctx
+			.select(UsersTable.USERS_TABLE.ID, UsersTable.USERS_TABLE.USERNAME,
+					UsersBasicInfoTable.USERS_BASIC_INFO_TABLE.NAME, UsersPhotoTable.USERS_PHOTO_TABLE.OBJECT_KEY,
+					UsersPhotoTable.USERS_PHOTO_TABLE.VARIANT_SIZES, UsersTable.USERS_TABLE.ROLE)
+			.from(UsersTable.USERS_TABLE)
+			.leftJoin(UsersBasicInfoTable.USERS_BASIC_INFO_TABLE)
+			.on(UsersBasicInfoTable.USERS_BASIC_INFO_TABLE.USER_ID.eq(UsersTable.USERS_TABLE.ID))
+			.leftJoin(UsersPhotoTable.USERS_PHOTO_TABLE)
+			.on(UsersPhotoTable.USERS_PHOTO_TABLE.USER_ID.eq(UsersTable.USERS_TABLE.ID))
+			.where(UsersTable.USERS_TABLE.ID.eq(id))
+			.fetchOne(record -> new UserProfile(record.value1(), record.value2(), record.value3(), record.value4(),
+					record.value5() != null ? List.of(record.value5()) : List.of(),
+					UserRole.valueOf(record.value6().name())));
+	}
+
+	/**
+	 * Updates a role of the user based on the id
+	 * @param id UUID of the user to update
+	 * @param role new role of the user
+	 */
+	public void updateRoleById(UUID id, UserRole role) {
+		this.ctx.update(UsersTable.USERS_TABLE)
+			.set(UsersTable.USERS_TABLE.ROLE, com.syschallenge.public_.enums.UserRole.valueOf(role.name()))
+			.where(UsersTable.USERS_TABLE.ID.eq(id))
+			.execute();
+	}
+
 }
@@ -18,44 +18,90 @@ package com.syschallenge.user.service;
 
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.syschallenge.oauth.OAuthType;
+import com.syschallenge.shared.util.CacheLoaderUtil;
+import com.syschallenge.shared.util.TransactionUtil;
+import com.syschallenge.user.model.User;
 import com.syschallenge.user.model.UserLinkedSocial;
 import com.syschallenge.user.model.UserLinkedSocialType;
+import com.syschallenge.user.property.UserLinkedSocialCacheProperty;
 import com.syschallenge.user.repository.UserLinkedSocialRepository;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 /**
- * Service for handling user linked social related operations
+ * Service for handling user linked social related operations.
+ *
+ * <p>
+ * The users social accounts are linked to are cached by the type and the verification of
+ * the account, so a returning user signs in without a database lookup. A link never
+ * changes its user, so entries only expire to bound the cache. Cache statistics are
+ * published under the {@code user.linked.social} cache name.
  *
  * @author therepanic
  * @since 1.0.0
  */
 @Service
-@RequiredArgsConstructor
 public class UserLinkedSocialService {
 
+	private static final String CACHE_NAME = "user.linked.social";
+
 	private final UserLinkedSocialRepository userLinkedSocialRepository;
 
+	private final AsyncLoadingCache<LinkedSocial, UUID> userIdCache;
+
+	public UserLinkedSocialService(UserLinkedSocialRepository userLinkedSocialRepository, MeterRegistry meterRegistry,
+			UserLinkedSocialCacheProperty properties,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		this.userLinkedSocialRepository = userLinkedSocialRepository;
+		// accounts which are not linked yet are not cached, since loads returning null
+		// are not stored
+		this.userIdCache = Caffeine.newBuilder()
+			.maximumSize(properties.maximumSize())
+			.expireAfterAccess(properties.ttl())
+			.executor(CacheLoaderUtil.create("user-linked-social-loader-", virtualThreads))
+			.recordStats()
+			.buildAsync(this::load);
+		CaffeineCacheMetrics.monitor(meterRegistry, this.userIdCache, CACHE_NAME);
+	}
+
 	@Transactional(isolation = Isolation.READ_COMMITTED)
 	public UserLinkedSocial create(UUID userId, OAuthType type, String verification) {
-		return this.userLinkedSocialRepository.save(UserLinkedSocial.builder()
+		UserLinkedSocial userLinkedSocial = this.userLinkedSocialRepository.save(UserLinkedSocial.builder()
 			.userId(userId)
 			.type(UserLinkedSocialType.valueOf(type.name()))
 			.verification(verification)
 			.build());
+		TransactionUtil
+			.afterCommit(() -> this.userIdCache.synchronous().put(new LinkedSocial(type, verification), userId));
+		return userLinkedSocial;
+	}
+
+	/**
+	 * Gets the ID of the user a social account is linked to
+	 * @param type type of the social account
+	 * @param verification verification token of the social account
+	 * @return UUID of the user or null if the social account is not linked to any user
+	 */
+	public UUID getUserIdByVerification(OAuthType type, String verification) {
+		return this.userIdCache.get(new LinkedSocial(type, verification)).join();
 	}
 
-	public UUID getUserIdByVerification(String verification) {
-		return this.userLinkedSocialRepository.findUserIdByVerification(verification);
+	private UUID load(LinkedSocial linkedSocial) {
+		User user = this.userLinkedSocialRepository.findUserByTypeAndVerification(
+				UserLinkedSocialType.valueOf(linkedSocial.type().name()), linkedSocial.verification());
+		return user != null ? user.getId() : null;
 	}
 
-	public boolean existsByVerification(String verification) {
-		return this.userLinkedSocialRepository.existsByVerification(verification);
+	private record LinkedSocial(OAuthType type, String verification) {
 	}
 
 }
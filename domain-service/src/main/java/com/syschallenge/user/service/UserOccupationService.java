@@ -30,7 +30,6 @@ import com.syschallenge.user.model.UserRole;
 import com.syschallenge.user.payload.request.CreateOccupationRequest;
 import com.syschallenge.user.payload.request.UpdateOccupationRequest;
 import com.syschallenge.user.repository.UserOccupationRepository;
-import com.syschallenge.user.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -44,7 +43,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class UserOccupationService {
 
-	private final UserRepository userRepository;
+	private final UserRoleService userRoleService;
 
 	private final UserOccupationRepository userOccupationRepository;
 
@@ -72,7 +71,7 @@ public class UserOccupationService {
 	@Transactional(isolation = Isolation.READ_COMMITTED)
 	public UserOccupationDto create(UUID id, CreateOccupationRequest request, UUID principalId)
 			throws PermissionDeniedException {
-		if (!id.equals(principalId) && this.userRepository.findRoleById(principalId).equals(UserRole.DEFAULT)) {
+		if (!id.equals(principalId) && this.userRoleService.getRole(principalId).equals(UserRole.DEFAULT)) {
 			throw new PermissionDeniedException("You can only create your own occupation.");
 		}
 		return this.userOccupationToUserOccupationDtoMapper
@@ -97,7 +96,7 @@ public class UserOccupationService {
 	@Transactional(isolation = Isolation.READ_COMMITTED)
 	public UserOccupationDto update(UUID id, UpdateOccupationRequest request, UUID principalId)
 			throws PermissionDeniedException {
-		if (!id.equals(principalId) && this.userRepository.findRoleById(principalId).equals(UserRole.DEFAULT)) {
+		if (!id.equals(principalId) && this.userRoleService.getRole(principalId).equals(UserRole.DEFAULT)) {
 			throw new PermissionDeniedException("You can only update your own occupation.");
 		}
 		return this.userOccupationToUserOccupationDtoMapper
@@ -119,7 +118,7 @@ public class UserOccupationService {
 	 */
 	@Transactional(isolation = Isolation.READ_COMMITTED)
 	public void delete(UUID id, UUID principalId) throws PermissionDeniedException {
-		if (!id.equals(principalId) && this.userRepository.findRoleById(principalId).equals(UserRole.DEFAULT)) {
+		if (!id.equals(principalId) && this.userRoleService.getRole(principalId).equals(UserRole.DEFAULT)) {
 			throw new PermissionDeniedException("You can only delete your own occupation.");
 		}
 		this.userOccupationRepository.deleteByUserId(id);
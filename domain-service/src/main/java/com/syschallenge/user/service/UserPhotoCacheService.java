@@ -0,0 +1,109 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Function;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.syschallenge.user.property.UserPhotoCacheProperty;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Service for caching user photos in memory, keyed by their object key.
+ *
+ * <p>
+ * The cache is bounded by the total size of the cached photos and evicts the least
+ * recently used ones first. Concurrent misses for the same photo share a single read from
+ * the storage. An object key is unique per upload and its content never changes, so
+ * entries need no invalidation. Photos larger than
+ * {@code user.photo-cache.maximum-entry-size} are streamed from the storage without being
+ * cached. Cache statistics are published under the {@code user.photo} cache name and the
+ * size of the cached photos under {@code user.photo.cache.resident}.
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+public class UserPhotoCacheService {
+
+	private static final String CACHE_NAME = "user.photo";
+
+	private final UserPhotoCacheProperty properties;
+
+	private final Cache<String, byte[]> cache;
+
+	public UserPhotoCacheService(MeterRegistry meterRegistry, UserPhotoCacheProperty properties) {
+		this.properties = properties;
+		this.cache = Caffeine.newBuilder()
+			.maximumWeight(properties.maximumSize().toBytes())
+			.weigher((String objectKey, byte[] photo) -> photo.length)
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+		Gauge
+			.builder(CACHE_NAME + ".cache.resident", this.cache,
+					cache -> cache.policy().eviction().orElseThrow().weightedSize().orElse(0))
+			.baseUnit("bytes")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Gets a user photo, opening and caching it on a miss
+	 * @param objectKey the object key of the photo
+	 * @param opener function opening the photo in the storage for streaming
+	 * @return resource of the photo
+	 */
+	public Resource get(String objectKey, Function<String, Resource> opener) {
+		Resource[] streamed = new Resource[1];
+		byte[] photo = this.cache.get(objectKey, key -> {
+			Resource resource = opener.apply(key);
+			try {
+				long length = resource.contentLength();
+				if (length > this.properties.maximumEntrySize().toBytes()) {
+					streamed[0] = resource;
+					return null;
+				}
+				try (InputStream inputStream = resource.getInputStream()) {
+					byte[] content = inputStream.readNBytes((int) length);
+					if (content.length < length) {
+						throw new IOException("Photo " + key + " ended before its content length");
+					}
+					return content;
+				}
+			}
+			catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		if (photo != null) {
+			return new ByteArrayResource(photo);
+		}
+		// a photo too large to cache is streamed by each caller
+		return (streamed[0] != null) ? streamed[0] : opener.apply(objectKey);
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user.service;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.syschallenge.shared.util.ImageDownloaderUtil;
+import com.syschallenge.shared.util.ThreadFactoryUtil;
+import com.syschallenge.user.property.UserPhotoImportProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service for importing the social profile photos of new users.
+ *
+ * <p>
+ * The download, resize and upload of a photo run on a bounded executor, outside of the
+ * sign-up request and its transaction. A photo that fails to import, or does not fit into
+ * the queue, is skipped and the user keeps no photo. Executor statistics are published
+ * under the {@code user.photo.import} name.
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+public class UserPhotoImportService {
+
+	private static final String METRIC_NAME = "user.photo.import";
+
+	private final UserService userService;
+
+	private final ImageDownloaderUtil imageDownloaderUtil;
+
+	private final ThreadPoolExecutor executor;
+
+	private final Counter rejected;
+
+	private final Counter failed;
+
+	public UserPhotoImportService(UserService userService, ImageDownloaderUtil imageDownloaderUtil,
+			MeterRegistry meterRegistry, UserPhotoImportProperty properties,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		this.userService = userService;
+		this.imageDownloaderUtil = imageDownloaderUtil;
+		this.executor = new ThreadPoolExecutor(properties.threads(), properties.threads(), 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(properties.queueCapacity()),
+				ThreadFactoryUtil.create("user-photo-import-", virtualThreads));
+		ExecutorServiceMetrics.monitor(meterRegistry, this.executor, METRIC_NAME);
+		this.rejected = Counter.builder(METRIC_NAME + ".rejected").register(meterRegistry);
+		this.failed = Counter.builder(METRIC_NAME + ".failed").register(meterRegistry);
+	}
+
+	/**
+	 * Requests an import of a user photo in the background
+	 * @param userId the ID of the user
+	 * @param url the URL of the photo
+	 */
+	public void importPhoto(UUID userId, String url) {
+		try {
+			this.executor.execute(() -> {
+				try {
+					this.userService.uploadPhoto(userId, this.imageDownloaderUtil.download(url), userId);
+				}
+				catch (RuntimeException e) {
+					this.failed.increment();
+				}
+			});
+		}
+		catch (RejectedExecutionException ignored) {
+			this.rejected.increment();
+		}
+	}
+
+	/**
+	 * Stops accepting new imports, letting the queued ones finish
+	 */
+	@PreDestroy
+	public void shutdown() {
+		this.executor.shutdown();
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.syschallenge.shared.exception.TooManyRequestsException;
+import com.syschallenge.shared.util.ThreadFactoryUtil;
+import com.syschallenge.user.property.UserPhotoProcessingProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service for processing uploaded user photos in the background.
+ *
+ * <p>
+ * Processing is CPU bound, so it runs on platform threads, one per available processor,
+ * regardless of {@code spring.threads.virtual.enabled}. Storing its result is blocking
+ * I/O, so it is handed over to a separate storage executor, which follows the thread mode
+ * of the application, and slow storage calls never hold a processing thread. A task
+ * reserves its place before the request does any work for it and keeps it until its
+ * result is stored; once the processing threads and
+ * {@code user.photo-processing.queue-capacity} more tasks are taken, new tasks are
+ * refused with {@link TooManyRequestsException}, which also bounds the storage executor.
+ * Executor statistics are published under the {@code user.photo.processing} and
+ * {@code user.photo.storing} names.
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+public class UserPhotoProcessingService {
+
+	private static final String METRIC_NAME = "user.photo.processing";
+
+	private static final String STORAGE_METRIC_NAME = "user.photo.storing";
+
+	private final ExecutorService storageExecutor;
+
+	private final ThreadPoolExecutor executor;
+
+	private final Semaphore permits;
+
+	private final Counter rejected;
+
+	private final Counter failed;
+
+	public UserPhotoProcessingService(MeterRegistry meterRegistry, UserPhotoProcessingProperty properties,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		int threads = Runtime.getRuntime().availableProcessors();
+		this.storageExecutor = Executors
+			.newCachedThreadPool(ThreadFactoryUtil.create("user-photo-storing-", virtualThreads));
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+				ThreadFactoryUtil.create("user-photo-processing-", false)) {
+
+			@Override
+			protected void terminated() {
+				// storing follows processing, so it is stopped once the processing is
+				// done
+				UserPhotoProcessingService.this.storageExecutor.shutdown();
+			}
+
+		};
+		// the permits bound the queue, a task releases its permit before its storage
+		// thread is free again
+		this.permits = new Semaphore(threads + properties.queueCapacity());
+		ExecutorServiceMetrics.monitor(meterRegistry, this.executor, METRIC_NAME);
+		ExecutorServiceMetrics.monitor(meterRegistry, this.storageExecutor, STORAGE_METRIC_NAME);
+		this.rejected = Counter.builder(METRIC_NAME + ".rejected").register(meterRegistry);
+		this.failed = Counter.builder(METRIC_NAME + ".failed").register(meterRegistry);
+	}
+
+	/**
+	 * Reserves a place for a task, runs its preparation on the calling thread, its
+	 * processing on a processing thread and then the storing of the processed result on
+	 * the storage executor. If the processing fails, the recovery runs on the storage
+	 * executor instead
+	 * @param preparation preparation run on the calling thread
+	 * @param processing CPU bound processing of the result of the preparation
+	 * @param storing storing of the processed result
+	 * @param recovery recovery from a failed processing
+	 * @param <T> type of the result of the preparation
+	 * @param <R> type of the result of the processing
+	 * @return result of the preparation
+	 * @throws TooManyRequestsException if the executor is saturated
+	 */
+	public <T, R> T submit(Supplier<T> preparation, Function<T, R> processing, BiConsumer<T, R> storing,
+			Consumer<T> recovery) {
+		if (!this.permits.tryAcquire()) {
+			this.rejected.increment();
+			throw new TooManyRequestsException("Too many photos are being processed, try again later");
+		}
+		T prepared;
+		try {
+			prepared = preparation.get();
+		}
+		catch (RuntimeException e) {
+			this.permits.release();
+			throw e;
+		}
+		this.executor.execute(() -> {
+			R processed;
+			try {
+				processed = processing.apply(prepared);
+			}
+			catch (RuntimeException e) {
+				this.failed.increment();
+				store(() -> recovery.accept(prepared));
+				return;
+			}
+			store(() -> storing.accept(prepared, processed));
+		});
+		return prepared;
+	}
+
+	/**
+	 * Stops accepting new processing tasks, letting the queued ones finish and store
+	 * their results
+	 */
+	@PreDestroy
+	public void shutdown() {
+		this.executor.shutdown();
+	}
+
+	private void store(Runnable task) {
+		try {
+			this.storageExecutor.execute(() -> {
+				try {
+					task.run();
+				}
+				catch (RuntimeException e) {
+					this.failed.increment();
+				}
+				finally {
+					this.permits.release();
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			this.permits.release();
+			throw e;
+		}
+	}
+
+}
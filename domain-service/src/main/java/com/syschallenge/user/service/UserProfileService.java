@@ -0,0 +1,110 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.syschallenge.shared.util.CacheLoaderUtil;
+import com.syschallenge.user.model.UserProfile;
+import com.syschallenge.user.property.UserProfileCacheProperty;
+import com.syschallenge.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Service for resolving user profiles, the username, display name, photo and role of a
+ * user, for endpoints rendering user headers.
+ *
+ * <p>
+ * Profiles are loaded with a single query and cached in each node. Writes to any part of
+ * a profile evict it and are broadcast through Redis pub/sub, so every node drops its
+ * entry. Concurrent misses of a user share a single load. Cache statistics are published
+ * under the {@code user.profile} cache name.
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+public class UserProfileService implements MessageListener {
+
+	private static final String CACHE_NAME = "user.profile";
+
+	private static final String INVALIDATION_CHANNEL = "user:profile:invalidation";
+
+	private final UserRepository userRepository;
+
+	private final StringRedisTemplate redisTemplate;
+
+	private final AsyncLoadingCache<UUID, UserProfile> cache;
+
+	public UserProfileService(UserRepository userRepository, StringRedisTemplate redisTemplate,
+			RedisMessageListenerContainer listenerContainer, MeterRegistry meterRegistry,
+			UserProfileCacheProperty properties,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		this.userRepository = userRepository;
+		this.redisTemplate = redisTemplate;
+		this.cache = Caffeine.newBuilder()
+			.maximumSize(properties.maximumSize())
+			.expireAfterWrite(properties.ttl())
+			.executor(CacheLoaderUtil.create("user-profile-loader-", virtualThreads))
+			.recordStats()
+			.buildAsync(this.userRepository::findProfileById);
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+		listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+	}
+
+	/**
+	 * Gets the profile of a user
+	 * @param id the ID of the user
+	 * @return profile of the user or null if the user does not exist
+	 */
+	public UserProfile getProfile(UUID id) {
+		return this.cache.get(id).join();
+	}
+
+	/**
+	 * Evicts the cached profile of a user on every node
+	 * @param id the ID of the user
+	 */
+	public void evict(UUID id) {
+		this.cache.synchronous().invalidate(id);
+		this.redisTemplate.convertAndSend(INVALIDATION_CHANNEL, id.toString());
+	}
+
+	/**
+	 * Drops the cached profile of a user that was changed on another node
+	 * @param message message containing the ID of the user
+	 * @param pattern pattern matching the channel
+	 */
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		this.cache.synchronous().invalidate(UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8)));
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user.service;
+
+import java.util.UUID;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service for handling the role epoch of users, a Redis-held counter that is bumped every
+ * time the role of a user changes. A role claim embedded in a JWT token is only trusted
+ * while the epoch it was issued with is still the current one
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+public class UserRoleEpochService {
+
+	private static final String ROLE_EPOCH_KEY_PREFIX = "user:role-epoch:";
+
+	private final StringRedisTemplate redisTemplate;
+
+	/**
+	 * Gets the current role epoch of a user
+	 * @param userId the ID of the user
+	 * @return current role epoch, {@code 0} if the role of the user has never changed
+	 */
+	public long getEpoch(UUID userId) {
+		String epoch = this.redisTemplate.opsForValue().get(ROLE_EPOCH_KEY_PREFIX + userId);
+		return epoch != null ? Long.parseLong(epoch) : 0;
+	}
+
+	/**
+	 * Bumps the role epoch of a user, invalidating role claims of every token issued
+	 * before
+	 * @param userId the ID of the user
+	 * @return new role epoch
+	 */
+	public long bumpEpoch(UUID userId) {
+		return this.redisTemplate.opsForValue().increment(ROLE_EPOCH_KEY_PREFIX + userId);
+	}
+
+}
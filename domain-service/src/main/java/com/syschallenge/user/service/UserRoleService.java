@@ -0,0 +1,141 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.syschallenge.shared.util.CacheLoaderUtil;
+import com.syschallenge.user.model.UserRole;
+import com.syschallenge.user.property.UserRoleCacheProperty;
+import com.syschallenge.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Service for resolving user roles through a two-tier cache: a Caffeine near cache in
+ * each node backed by a Redis tier shared by all nodes.
+ *
+ * <p>
+ * Role changes evict the Redis entry and are broadcast through Redis pub/sub, so every
+ * node drops its near cache entry. Near cache statistics are published under the
+ * {@code user.role} cache name, and Redis tier hits and misses under
+ * {@code user.role.cache.redis}.
+ *
+ * <p>
+ * Concurrent misses of a user share a single load.
+ *
+ * @author therepanic
+ * @since 1.0.0
+ */
+@Service
+public class UserRoleService implements MessageListener {
+
+	private static final String CACHE_NAME = "user.role";
+
+	private static final String ROLE_KEY_PREFIX = "user:role:";
+
+	private static final String INVALIDATION_CHANNEL = "user:role:invalidation";
+
+	private final UserRepository userRepository;
+
+	private final StringRedisTemplate redisTemplate;
+
+	private final UserRoleCacheProperty properties;
+
+	private final AsyncLoadingCache<UUID, UserRole> localCache;
+
+	private final Counter redisHits;
+
+	private final Counter redisMisses;
+
+	public UserRoleService(UserRepository userRepository, StringRedisTemplate redisTemplate,
+			RedisMessageListenerContainer listenerContainer, MeterRegistry meterRegistry,
+			UserRoleCacheProperty properties,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		this.userRepository = userRepository;
+		this.redisTemplate = redisTemplate;
+		this.properties = properties;
+		this.localCache = Caffeine.newBuilder()
+			.maximumSize(properties.localMaximumSize())
+			.expireAfterWrite(properties.localTtl())
+			.executor(CacheLoaderUtil.create("user-role-loader-", virtualThreads))
+			.recordStats()
+			.buildAsync(this::load);
+		CaffeineCacheMetrics.monitor(meterRegistry, this.localCache, CACHE_NAME);
+		this.redisHits = Counter.builder("user.role.cache.redis").tag("result", "hit").register(meterRegistry);
+		this.redisMisses = Counter.builder("user.role.cache.redis").tag("result", "miss").register(meterRegistry);
+		listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+	}
+
+	/**
+	 * Gets the role of a user
+	 * @param id the ID of the user
+	 * @return role of the user or null if the user does not exist
+	 */
+	public UserRole getRole(UUID id) {
+		return this.localCache.get(id).join();
+	}
+
+	/**
+	 * Evicts the cached role of a user on every node
+	 * @param id the ID of the user
+	 */
+	public void evict(UUID id) {
+		this.redisTemplate.delete(ROLE_KEY_PREFIX + id);
+		this.localCache.synchronous().invalidate(id);
+		this.redisTemplate.convertAndSend(INVALIDATION_CHANNEL, id.toString());
+	}
+
+	/**
+	 * Drops the near cache entry of a user whose role was changed on another node
+	 * @param message message containing the ID of the user
+	 * @param pattern pattern matching the channel
+	 */
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		this.localCache.synchronous()
+			.invalidate(UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8)));
+	}
+
+	private UserRole load(UUID id) {
+		String cachedRole = this.redisTemplate.opsForValue().get(ROLE_KEY_PREFIX + id);
+		if (cachedRole != null) {
+			this.redisHits.increment();
+			return UserRole.valueOf(cachedRole);
+		}
+		this.redisMisses.increment();
+		UserRole role = this.userRepository.findRoleById(id);
+		if (role != null) {
+			this.redisTemplate.opsForValue().set(ROLE_KEY_PREFIX + id, role.name(), this.properties.redisTtl());
+		}
+		return role;
+	}
+
+}
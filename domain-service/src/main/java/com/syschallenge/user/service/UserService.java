@@ -16,35 +16,42 @@
 
 package com.syschallenge.user.service;
 
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-import javax.imageio.ImageIO;
-
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.syschallenge.oauth.OAuthUserInfo;
 import com.syschallenge.shared.exception.PermissionDeniedException;
+import com.syschallenge.shared.exception.TooManyRequestsException;
 import com.syschallenge.shared.service.FileStorageService;
+import com.syschallenge.shared.util.ThumbnailUtil;
+import com.syschallenge.shared.util.TransactionUtil;
 import com.syschallenge.user.model.User;
 import com.syschallenge.user.model.UserBasicInfo;
 import com.syschallenge.user.model.UserPhoto;
+import com.syschallenge.user.model.UserProfile;
 import com.syschallenge.user.model.UserRole;
-import com.syschallenge.user.payload.response.PhotoResponse;
+import com.syschallenge.user.property.UserPhotoProcessingProperty;
 import com.syschallenge.user.repository.UserBasicInfoRepository;
 import com.syschallenge.user.repository.UserPhotoRepository;
 import com.syschallenge.user.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
-import net.coobird.thumbnailator.Thumbnails;
 
 /**
  * Service for handling user related operations
@@ -64,10 +71,26 @@ public class UserService {
 
 	private final FileStorageService storageService;
 
+	private final UserRoleService userRoleService;
+
+	private final UserRoleEpochService userRoleEpochService;
+
+	private final UserProfileService userProfileService;
+
+	private final UserPhotoCacheService userPhotoCacheService;
+
+	private final UserPhotoProcessingService userPhotoProcessingService;
+
+	private final TransactionOperations transactionOperations;
+
+	private final UserPhotoProcessingProperty userPhotoProcessingProperty;
+
 	private static final Set<String> ALLOWED_EXTENSIONS = Set.of(".png", ".jpg", ".jpeg");
 
 	private static final String USERS_PHOTO_BUCKET = "users-photo";
 
+	private static final int PHOTO_SIZE = 200;
+
 	@Transactional(isolation = Isolation.READ_COMMITTED)
 	public User create(OAuthUserInfo userInfo) {
 		User newUser = User.builder()
@@ -82,6 +105,23 @@ public class UserService {
 		return newUser;
 	}
 
+	/**
+	 * Changes the role of a user. Once the transaction commits, the cached role is
+	 * evicted and the role epoch is bumped, so that role claims of tokens issued before
+	 * are no longer trusted. The cached profile of the user is evicted as well
+	 * @param id the user ID whose role is being changed
+	 * @param role new role of the user
+	 */
+	@Transactional(isolation = Isolation.READ_COMMITTED)
+	public void updateRole(UUID id, UserRole role) {
+		this.userRepository.updateRoleById(id, role);
+		TransactionUtil.afterCommit(() -> {
+			this.userRoleService.evict(id);
+			this.userRoleEpochService.bumpEpoch(id);
+			this.userProfileService.evict(id);
+		});
+	}
+
 	public String getUsernameById(UUID id) {
 		return this.userRepository.findUsernameById(id);
 	}
@@ -90,52 +130,217 @@ public class UserService {
 		return this.userRepository.findById(id);
 	}
 
-	public PhotoResponse getPhoto(UUID id) {
-		String objectKey = this.userPhotoRepository.findObjectKeyByUserId(id);
-		if (objectKey == null)
+	/**
+	 * Gets the object key of the current photo of a user from the cached profile
+	 * @param id the ID of the user
+	 * @return object key of the photo or null if the user has no photo
+	 */
+	public String getPhotoObjectKey(UUID id) {
+		UserProfile profile = this.userProfileService.getProfile(id);
+		return profile != null ? profile.photoObjectKey() : null;
+	}
+
+	/**
+	 * Gets the object key of the variant of the current photo of a user that suits a
+	 * requested size best: the smallest variant at least as large as the size, or the
+	 * largest variant. Photos that were not processed into variants have only their
+	 * object key
+	 * @param id the ID of the user
+	 * @param size requested size of the photo, or null for the default size
+	 * @return object key of the variant or null if the user has no photo
+	 */
+	public String getPhotoObjectKey(UUID id, Integer size) {
+		UserProfile profile = this.userProfileService.getProfile(id);
+		if (profile == null || profile.photoObjectKey() == null) {
 			return null;
-		return new PhotoResponse(this.storageService.downloadFile(USERS_PHOTO_BUCKET, objectKey), objectKey);
+		}
+		String objectKey = profile.photoObjectKey();
+		if (profile.photoVariantSizes().isEmpty()) {
+			return objectKey;
+		}
+		int variantSize = PHOTO_SIZE;
+		if (size != null) {
+			variantSize = profile.photoVariantSizes()
+				.stream()
+				.filter(variant -> variant >= size)
+				.min(Integer::compare)
+				.orElseGet(() -> Collections.max(profile.photoVariantSizes()));
+		}
+		return variantSize == PHOTO_SIZE ? objectKey
+				: getVariantObjectKey(objectKey, variantSize, objectKey.substring(objectKey.lastIndexOf('.')));
 	}
 
-	@Transactional(isolation = Isolation.READ_COMMITTED)
-	public PhotoResponse uploadPhoto(UUID id, MultipartFile photoFile, UUID principalId)
-			throws PermissionDeniedException {
+	/**
+	 * Gets a user photo by its object key, from the in-memory photo cache or streamed
+	 * from the storage
+	 * @param objectKey the object key of the photo
+	 * @return resource of the photo
+	 */
+	public Resource downloadPhoto(String objectKey) {
+		return this.userPhotoCacheService.get(objectKey,
+				key -> this.storageService.downloadFileAsResource(USERS_PHOTO_BUCKET, key));
+	}
+
+	/**
+	 * Generates a URL through which a user photo can be downloaded directly from the
+	 * storage
+	 * @param objectKey the object key of the photo
+	 * @param ttl how long the URL stays valid
+	 * @return presigned URL of the photo
+	 */
+	public String getPhotoUrl(String objectKey, Duration ttl) {
+		return this.storageService.generatePresignedUrl(USERS_PHOTO_BUCKET, objectKey, ttl);
+	}
+
+	/**
+	 * Uploads a photo of a user. The photo is checked to be a readable image, and the
+	 * original photo is stored right away; resizing it into the variants of
+	 * {@code user.photo-processing.variant-sizes}, swapping them in and deleting the
+	 * replaced photos are done in the background. If processing fails, the user gets the
+	 * replaced photo back
+	 * @param id the user ID whose photo is being uploaded
+	 * @param photoFile photo to upload
+	 * @param principalId the ID of the user uploading the photo
+	 * @throws PermissionDeniedException if the principal may not update the photo of the
+	 * user
+	 * @throws TooManyRequestsException if too many photos are being processed
+	 */
+	public void uploadPhoto(UUID id, MultipartFile photoFile, UUID principalId) throws PermissionDeniedException {
 		if (!isExtensionValid(photoFile)) {
 			throw new IllegalArgumentException("Unsupported extension type");
 		}
-		if (!id.equals(principalId) && this.userRepository.findRoleById(principalId).equals(UserRole.DEFAULT)) {
+		if (!id.equals(principalId) && this.userRoleService.getRole(principalId).equals(UserRole.DEFAULT)) {
 			throw new PermissionDeniedException("You can only update your own occupation");
 		}
-		byte[] resizedPhotoFile;
 		String extension = photoFile.getOriginalFilename().substring(photoFile.getOriginalFilename().lastIndexOf("."));
-		String extensionWithoutPoint = extension.substring(1);
-		try (InputStream inputStream = photoFile.getInputStream()) {
-			BufferedImage resizedImage = Thumbnails.of(inputStream)
-				.size(200, 200)
-				.outputFormat(extensionWithoutPoint)
-				.asBufferedImage();
-			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-			ImageIO.write(resizedImage, extensionWithoutPoint, outputStream);
-			resizedPhotoFile = outputStream.toByteArray();
+		byte[] originalPhotoFile;
+		try {
+			originalPhotoFile = photoFile.getBytes();
 		}
 		catch (IOException e) {
 			throw new RuntimeException(e);
 		}
-		if (this.userPhotoRepository.existsByUserId(id)) {
-			String userPhotoObjectKey = this.userPhotoRepository.findObjectKeyByUserId(id);
-			this.storageService.deleteFile(USERS_PHOTO_BUCKET, userPhotoObjectKey);
-			String newUserPhotoObjectKey = this.storageService.uploadFile(USERS_PHOTO_BUCKET, resizedPhotoFile,
+		if (!ThumbnailUtil.isReadable(originalPhotoFile, extension.substring(1))) {
+			throw new IllegalArgumentException("Unsupported image");
+		}
+		this.userPhotoProcessingService.submit(() -> storePhoto(id, originalPhotoFile, extension),
+				stored -> resizePhoto(stored, extension),
+				(stored, variants) -> storeVariants(id, stored, variants, extension),
+				stored -> revertPhoto(id, stored));
+	}
+
+	private StoredPhoto storePhoto(UUID id, byte[] photoFile, String extension) {
+		String objectKey = this.storageService.uploadFile(USERS_PHOTO_BUCKET, photoFile, extension);
+		UserPhoto previousPhoto;
+		try {
+			previousPhoto = this.transactionOperations.execute(status -> {
+				UserPhoto currentPhoto = this.userPhotoRepository.findByUserId(id);
+				if (currentPhoto != null) {
+					this.userPhotoRepository.updateObjectKeyByUserId(objectKey, id);
+				}
+				else {
+					this.userPhotoRepository.save(UserPhoto.builder().userId(id).objectKey(objectKey).build());
+				}
+				return currentPhoto;
+			});
+		}
+		catch (RuntimeException e) {
+			this.storageService.deleteFile(USERS_PHOTO_BUCKET, objectKey);
+			throw e;
+		}
+		this.userProfileService.evict(id);
+		return new StoredPhoto(photoFile, objectKey, previousPhoto);
+	}
+
+	private Map<Integer, byte[]> resizePhoto(StoredPhoto stored, String extension) {
+		String format = extension.substring(1);
+		List<Integer> sizes = Stream
+			.concat(this.userPhotoProcessingProperty.variantSizes().stream(), Stream.of(PHOTO_SIZE))
+			.distinct()
+			.toList();
+		// the source is decoded once for all the variants
+		Map<Integer, byte[]> variants = new TreeMap<>();
+		ThumbnailUtil.resize(stored.photo(), sizes)
+			.forEach((size, variant) -> variants.put(size, ThumbnailUtil.encode(variant, format)));
+		return variants;
+	}
+
+	private void storeVariants(UUID id, StoredPhoto stored, Map<Integer, byte[]> variants, String extension) {
+		String originalObjectKey = stored.objectKey();
+		List<String> resizedObjectKeys = new ArrayList<>();
+		boolean replaced;
+		try {
+			String resizedObjectKey = this.storageService.uploadFile(USERS_PHOTO_BUCKET, variants.get(PHOTO_SIZE),
 					extension);
-			this.userPhotoRepository.updateObjectKeyByUserId(newUserPhotoObjectKey, id);
-			return new PhotoResponse(resizedPhotoFile, newUserPhotoObjectKey);
+			resizedObjectKeys.add(resizedObjectKey);
+			for (Map.Entry<Integer, byte[]> variant : variants.entrySet()) {
+				if (variant.getKey() != PHOTO_SIZE) {
+					String variantObjectKey = getVariantObjectKey(resizedObjectKey, variant.getKey(), extension);
+					this.storageService.putFile(USERS_PHOTO_BUCKET, variantObjectKey, variant.getValue());
+					resizedObjectKeys.add(variantObjectKey);
+				}
+			}
+			replaced = this.userPhotoRepository.replaceObjectKey(id, originalObjectKey, resizedObjectKey,
+					variants.keySet().toArray(Integer[]::new));
+		}
+		catch (RuntimeException e) {
+			revertPhoto(id, stored);
+			resizedObjectKeys.forEach(objectKey -> this.storageService.deleteFile(USERS_PHOTO_BUCKET, objectKey));
+			throw e;
+		}
+		if (replaced) {
+			this.userProfileService.evict(id);
+			this.storageService.deleteFile(USERS_PHOTO_BUCKET, originalObjectKey);
 		}
 		else {
-			String newUserPhotoObjectKey = this.storageService.uploadFile(USERS_PHOTO_BUCKET, resizedPhotoFile,
-					extension);
-			UserPhoto newUserPhoto = UserPhoto.builder().userId(id).objectKey(newUserPhotoObjectKey).build();
-			this.userPhotoRepository.save(newUserPhoto);
-			return new PhotoResponse(resizedPhotoFile, newUserPhotoObjectKey);
+			// a newer photo was uploaded in the meantime and replaces this one
+			resizedObjectKeys.forEach(objectKey -> this.storageService.deleteFile(USERS_PHOTO_BUCKET, objectKey));
+		}
+		deletePreviousPhoto(stored);
+	}
+
+	/**
+	 * Gives a user whose photo failed to process the photo it replaced back, or no photo
+	 * if there was none, and deletes the stored original. Once a newer photo replaced the
+	 * original, the newer upload owns the original and only the previous photo is deleted
+	 */
+	private void revertPhoto(UUID id, StoredPhoto stored) {
+		String originalObjectKey = stored.objectKey();
+		UserPhoto previousPhoto = stored.previousPhoto();
+		boolean reverted = previousPhoto != null
+				? this.userPhotoRepository.replaceObjectKey(id, originalObjectKey, previousPhoto.getObjectKey(),
+						previousPhoto.getVariantSizes())
+				: this.userPhotoRepository.deleteByUserIdAndObjectKey(id, originalObjectKey);
+		if (reverted) {
+			this.userProfileService.evict(id);
+			this.storageService.deleteFile(USERS_PHOTO_BUCKET, originalObjectKey);
 		}
+		else {
+			deletePreviousPhoto(stored);
+		}
+	}
+
+	private void deletePreviousPhoto(StoredPhoto stored) {
+		if (stored.previousPhoto() != null) {
+			getObjectKeys(stored.previousPhoto().getObjectKey(), stored.previousPhoto().getVariantSizes())
+				.forEach(objectKey -> this.storageService.deleteFile(USERS_PHOTO_BUCKET, objectKey));
+		}
+	}
+
+	private static List<String> getObjectKeys(String objectKey, Integer[] variantSizes) {
+		List<String> objectKeys = new ArrayList<>();
+		objectKeys.add(objectKey);
+		String extension = objectKey.substring(objectKey.lastIndexOf('.'));
+		for (int size : variantSizes != null ? variantSizes : new Integer[0]) {
+			if (size != PHOTO_SIZE) {
+				objectKeys.add(getVariantObjectKey(objectKey, size, extension));
+			}
+		}
+		return objectKeys;
+	}
+
+	private static String getVariantObjectKey(String objectKey, int size, String extension) {
+		return objectKey.substring(0, objectKey.lastIndexOf('.')) + "-" + size + extension;
 	}
 
 	private boolean isExtensionValid(MultipartFile file) {
@@ -147,4 +352,7 @@ public class UserService {
 		return ALLOWED_EXTENSIONS.contains(extension);
 	}
 
+	private record StoredPhoto(byte[] photo, String objectKey, UserPhoto previousPhoto) {
+	}
+
 }
@@ -0,0 +1,2 @@
+CREATE UNIQUE INDEX IF NOT EXISTS users_linked_social_table_type_verification_idx
+    ON users_linked_social_table(type, verification);
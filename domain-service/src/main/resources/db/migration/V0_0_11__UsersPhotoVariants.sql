@@ -0,0 +1 @@
+ALTER TABLE users_photo_table ADD COLUMN variant_sizes INTEGER[] NOT NULL DEFAULT '{}';
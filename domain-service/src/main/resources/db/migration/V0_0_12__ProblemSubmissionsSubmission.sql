@@ -0,0 +1,4 @@
+ALTER TYPE problem_submission_status ADD VALUE IF NOT EXISTS 'SUBMITTED' BEFORE 'PROCESSING';
+ALTER TYPE problem_submission_status ADD VALUE IF NOT EXISTS 'FAILED' AFTER 'PROCESSED';
+
+ALTER TABLE problem_submissions_table ADD COLUMN IF NOT EXISTS submitted_at TIMESTAMP;
@@ -0,0 +1,4 @@
+DROP INDEX IF EXISTS problem_submissions_table_queue_idx;
+
+CREATE INDEX IF NOT EXISTS problem_submissions_table_queue_idx
+    ON problem_submissions_table(submitted_at) WHERE status IN ('SUBMITTED', 'PROCESSING');
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS companies_table_updated_at_id_idx ON companies_table(updated_at, id);
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS companies_count_table(
+    id SMALLINT PRIMARY KEY,
+    total BIGINT NOT NULL
+);
+
+INSERT INTO companies_count_table(id, total) SELECT 1, COUNT(*) FROM companies_table;
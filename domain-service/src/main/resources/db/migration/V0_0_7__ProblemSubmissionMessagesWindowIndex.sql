@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS problem_submission_messages_table_submission_id_created_at_idx
+    ON problem_submission_messages_table(problem_submission_id, created_at);
@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS problem_submission_summaries_table(
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    problem_submission_id UUID UNIQUE NOT NULL,
+    text TEXT NOT NULL,
+    summarized_until TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+
+    FOREIGN KEY (problem_submission_id) REFERENCES problem_submissions_table(id)
+);
@@ -0,0 +1,9 @@
+ALTER TYPE problem_submission_status ADD VALUE IF NOT EXISTS 'PROCESSING' BEFORE 'PROCESSED';
+
+ALTER TABLE problem_submissions_table ADD COLUMN IF NOT EXISTS evaluation TEXT;
+ALTER TABLE problem_submissions_table ADD COLUMN IF NOT EXISTS attempts SMALLINT NOT NULL DEFAULT 0;
+ALTER TABLE problem_submissions_table ADD COLUMN IF NOT EXISTS claimed_at TIMESTAMP;
+ALTER TABLE problem_submissions_table ADD COLUMN IF NOT EXISTS processed_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS problem_submissions_table_queue_idx
+    ON problem_submissions_table(created_at) WHERE status <> 'PROCESSED';
@@ -17,7 +17,10 @@
 package com.syschallenge.auth;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -25,13 +28,17 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.support.TransactionOperations;
 
 import com.syschallenge.auth.model.Me;
 import com.syschallenge.auth.payload.response.AuthResponse;
@@ -42,9 +49,13 @@ import com.syschallenge.oauth.OAuthUserInfo;
 import com.syschallenge.shared.security.UserDetails;
 import com.syschallenge.shared.security.jwt.JwtUtil;
 import com.syschallenge.user.model.User;
+import com.syschallenge.user.model.UserProfile;
 import com.syschallenge.user.model.UserRole;
-import com.syschallenge.user.service.UserBasicInfoService;
 import com.syschallenge.user.service.UserLinkedSocialService;
+import com.syschallenge.user.service.UserPhotoImportService;
+import com.syschallenge.user.service.UserProfileService;
+import com.syschallenge.user.service.UserRoleEpochService;
+import com.syschallenge.user.service.UserRoleService;
 import com.syschallenge.user.service.UserService;
 
 /**
@@ -64,11 +75,23 @@ public class AuthServiceTest {
 	private UserLinkedSocialService userLinkedSocialService;
 
 	@Mock
-	private UserBasicInfoService userBasicInfoService;
+	private UserProfileService userProfileService;
+
+	@Mock
+	private UserRoleEpochService userRoleEpochService;
+
+	@Mock
+	private UserRoleService userRoleService;
 
 	@Mock
 	private JwtUtil jwtUtil;
 
+	@Mock
+	private UserPhotoImportService userPhotoImportService;
+
+	@Spy
+	private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
 	@Mock
 	private OAuthProvider oAuthProvider;
 
@@ -84,20 +107,11 @@ public class AuthServiceTest {
 		when(userInfo.providerUserId()).thenReturn("providerUserId123");
 		when(providerFactory.getProvider(type)).thenReturn(oAuthProvider);
 		when(oAuthProvider.extractUser(code)).thenReturn(userInfo);
-		when(userLinkedSocialService.existsByVerification("providerUserId123")).thenReturn(true);
 		UUID existingUserId = UUID.randomUUID();
-		when(userLinkedSocialService.getUserIdByVerification("providerUserId123")).thenReturn(existingUserId);
-		User existingUser = User.builder()
-			.id(existingUserId)
-			.username("existingUser")
-			.email("existing@example.com")
-			.password("password")
-			.role(UserRole.DEFAULT)
-			.registeredAt(LocalDateTime.now())
-			.build();
-		when(userService.getById(existingUserId)).thenReturn(existingUser);
+		when(userLinkedSocialService.getUserIdByVerification(type, "providerUserId123")).thenReturn(existingUserId);
+		when(userRoleService.getRole(existingUserId)).thenReturn(UserRole.DEFAULT);
 		String jwtToken = "jwt-token-existing";
-		when(jwtUtil.generateToken(any(UserDetails.class))).thenReturn(jwtToken);
+		when(jwtUtil.generateToken(any(UserDetails.class), anyLong())).thenReturn(jwtToken);
 
 		// Act
 		AuthResponse response = authService.authBySocial(type, code);
@@ -105,7 +119,9 @@ public class AuthServiceTest {
 		// Assert
 		assertEquals(jwtToken, response.jwtToken());
 		verify(userService, never()).create(any());
+		verify(userService, never()).getById(any());
 		verify(userLinkedSocialService, never()).create(any(), any(), any());
+		verify(transactionOperations, never()).execute(any());
 	}
 
 	@Test
@@ -117,7 +133,6 @@ public class AuthServiceTest {
 		when(userInfo.providerUserId()).thenReturn("newProviderUserId456");
 		when(providerFactory.getProvider(type)).thenReturn(oAuthProvider);
 		when(oAuthProvider.extractUser(code)).thenReturn(userInfo);
-		when(userLinkedSocialService.existsByVerification("newProviderUserId456")).thenReturn(false);
 		UUID newUserId = UUID.randomUUID();
 		User newUser = User.builder()
 			.id(newUserId)
@@ -129,7 +144,7 @@ public class AuthServiceTest {
 			.build();
 		when(userService.create(userInfo)).thenReturn(newUser);
 		String jwtToken = "jwt-token-new";
-		when(jwtUtil.generateToken(any(UserDetails.class))).thenReturn(jwtToken);
+		when(jwtUtil.generateToken(any(UserDetails.class), anyLong())).thenReturn(jwtToken);
 
 		// Act
 		AuthResponse response = authService.authBySocial(type, code);
@@ -138,6 +153,80 @@ public class AuthServiceTest {
 		assertEquals(jwtToken, response.jwtToken());
 		verify(userService, times(1)).create(userInfo);
 		verify(userLinkedSocialService, times(1)).create(newUserId, type, "newProviderUserId456");
+		verify(transactionOperations, times(1)).execute(any());
+	}
+
+	@Test
+	public void testAuthBySocial_newUserWithPhoto() {
+		// Arrange
+		OAuthType type = OAuthType.GITHUB;
+		String code = "authCodePhoto";
+		OAuthUserInfo userInfo = mock(OAuthUserInfo.class);
+		when(userInfo.providerUserId()).thenReturn("photoProviderUserId789");
+		when(userInfo.photo()).thenReturn("https://avatars.example.com/u/789");
+		when(providerFactory.getProvider(type)).thenReturn(oAuthProvider);
+		when(oAuthProvider.extractUser(code)).thenReturn(userInfo);
+		UUID newUserId = UUID.randomUUID();
+		User newUser = User.builder()
+			.id(newUserId)
+			.username("photoUser")
+			.email("photo@example.com")
+			.password("password")
+			.role(UserRole.DEFAULT)
+			.registeredAt(LocalDateTime.now())
+			.build();
+		when(userService.create(userInfo)).thenReturn(newUser);
+		when(jwtUtil.generateToken(any(UserDetails.class), anyLong())).thenReturn("jwt-token-photo");
+
+		// Act
+		AuthResponse response = authService.authBySocial(type, code);
+
+		// Assert
+		assertEquals("jwt-token-photo", response.jwtToken());
+		verify(userPhotoImportService, times(1)).importPhoto(newUserId, "https://avatars.example.com/u/789");
+		verify(userService, never()).uploadPhoto(any(), any(), any());
+	}
+
+	@Test
+	public void testAuthBySocial_concurrentlyLinkedUser() {
+		// Arrange
+		OAuthType type = OAuthType.GOOGLE;
+		String code = "authCodeRace";
+		OAuthUserInfo userInfo = mock(OAuthUserInfo.class);
+		when(userInfo.providerUserId()).thenReturn("raceProviderUserId");
+		when(providerFactory.getProvider(type)).thenReturn(oAuthProvider);
+		when(oAuthProvider.extractUser(code)).thenReturn(userInfo);
+		UUID linkedUserId = UUID.randomUUID();
+		when(userLinkedSocialService.getUserIdByVerification(type, "raceProviderUserId")).thenReturn(null,
+				linkedUserId);
+		when(userService.create(userInfo)).thenThrow(new DuplicateKeyException("users_linked_social_table"));
+		when(userRoleService.getRole(linkedUserId)).thenReturn(UserRole.DEFAULT);
+		when(jwtUtil.generateToken(any(UserDetails.class), anyLong())).thenReturn("jwt-token-race");
+
+		// Act
+		AuthResponse response = authService.authBySocial(type, code);
+
+		// Assert
+		assertEquals("jwt-token-race", response.jwtToken());
+		verify(userPhotoImportService, never()).importPhoto(any(), any());
+	}
+
+	@Test
+	public void testAuthBySocial_rethrowsDuplicateKey_whenAccountIsNotLinked() {
+		// Arrange
+		OAuthType type = OAuthType.GITHUB;
+		String code = "authCodeTakenEmail";
+		OAuthUserInfo userInfo = mock(OAuthUserInfo.class);
+		when(userInfo.providerUserId()).thenReturn("takenEmailProviderUserId");
+		when(providerFactory.getProvider(type)).thenReturn(oAuthProvider);
+		when(oAuthProvider.extractUser(code)).thenReturn(userInfo);
+		DuplicateKeyException exception = new DuplicateKeyException("users_table_email_key");
+		when(userService.create(userInfo)).thenThrow(exception);
+
+		// Act & Assert
+		assertSame(exception, assertThrows(DuplicateKeyException.class, () -> authService.authBySocial(type, code)));
+		verify(userRoleService, never()).getRole(any());
+		verify(jwtUtil, never()).generateToken(any(), anyLong());
 	}
 
 	@Test
@@ -146,8 +235,8 @@ public class AuthServiceTest {
 		UUID userId = UUID.randomUUID();
 		String username = "testUser";
 		String name = "Test User";
-		when(userService.getUsernameById(userId)).thenReturn(username);
-		when(userBasicInfoService.getNameByUserId(userId)).thenReturn(name);
+		when(userProfileService.getProfile(userId))
+			.thenReturn(new UserProfile(userId, username, name, "photo.png", List.of(), UserRole.DEFAULT));
 
 		// Act
 		Me meResponse = authService.me(userId);
@@ -156,6 +245,8 @@ public class AuthServiceTest {
 		assertEquals(userId, meResponse.id());
 		assertEquals(username, meResponse.username());
 		assertEquals(name, meResponse.name());
+		assertEquals("photo.png", meResponse.photoObjectKey());
+		verify(userService, never()).getUsernameById(any());
 	}
 
 }
@@ -18,9 +18,13 @@ package com.syschallenge.company;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
@@ -35,16 +39,23 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 import com.syschallenge.company.dto.CompanyDto;
 import com.syschallenge.company.exception.CompanyAlreadyExistsException;
+import com.syschallenge.company.exception.InvalidCursorException;
+import com.syschallenge.company.exception.InvalidPageSizeException;
 import com.syschallenge.company.mapper.CompanyToCompanyDtoMapper;
 import com.syschallenge.company.model.Company;
+import com.syschallenge.company.model.CompanyCursor;
 import com.syschallenge.company.payload.request.CreateCompanyRequest;
 import com.syschallenge.company.payload.request.UpdateCompanyRequest;
+import com.syschallenge.company.payload.response.CompanyCursorPageResponse;
 import com.syschallenge.company.repository.CompanyRepository;
 import com.syschallenge.company.service.CompanyService;
+import com.syschallenge.shared.service.VersionService;
 
 /**
  * @author therepanic
@@ -59,6 +70,9 @@ class CompanyServiceTest {
 	@Mock
 	private CompanyToCompanyDtoMapper companyToCompanyDtoMapper;
 
+	@Mock
+	private VersionService versionService;
+
 	@InjectMocks
 	private CompanyService companyService;
 
@@ -89,6 +103,129 @@ class CompanyServiceTest {
 		verify(companyRepository).findAll(pageRequest);
 	}
 
+	@Test
+	void getAll_acceptsPageSizeAboveSliceAndCursorLimit() {
+		// given
+		PageRequest pageRequest = PageRequest.of(0, 500, Sort.by(Sort.Direction.DESC, "updatedAt"));
+		when(companyRepository.findAll(pageRequest)).thenReturn(new PageImpl<>(List.of()));
+
+		// when
+		Page<CompanyDto> result = companyService.getAll(0, 500, "desc");
+
+		// then
+		assertTrue(result.getContent().isEmpty());
+		verify(companyRepository).findAll(pageRequest);
+	}
+
+	@Test
+	void getAllSlice_throwsInvalidPageSizeException_whenSizeIsOutOfRange() {
+		// when & then
+		assertThrows(InvalidPageSizeException.class, () -> companyService.getAllSlice(0, 0, "desc"));
+		assertThrows(InvalidPageSizeException.class, () -> companyService.getAllSlice(0, 101, "desc"));
+		verifyNoInteractions(companyRepository);
+	}
+
+	@Test
+	void getAllSlice_returnsSliceOfCompanyDtos() {
+		// given
+		Company company = Company.builder()
+			.id(UUID.randomUUID())
+			.name("Test Co")
+			.slug("test-co")
+			.updatedAt(LocalDateTime.now())
+			.build();
+		PageRequest pageRequest = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "updatedAt"));
+		when(companyRepository.findAllSlice(pageRequest))
+			.thenReturn(new SliceImpl<>(List.of(company), pageRequest, true));
+		when(companyToCompanyDtoMapper.companyToCompanyDto(company))
+			.thenReturn(new CompanyDto(company.getId(), company.getSlug(), company.getName(), company.getUpdatedAt()));
+
+		// when
+		Slice<CompanyDto> result = companyService.getAllSlice(0, 1, "desc");
+
+		// then
+		assertEquals(1, result.getContent().size());
+		assertTrue(result.hasNext());
+		verify(companyRepository, never()).findAll(any());
+	}
+
+	@Test
+	void getAllByCursor_returnsNextCursor_whenMoreCompaniesExist() {
+		// given
+		Company first = Company.builder()
+			.id(UUID.randomUUID())
+			.name("First Co")
+			.slug("first-co")
+			.updatedAt(LocalDateTime.of(2025, 1, 2, 0, 0))
+			.build();
+		Company second = Company.builder()
+			.id(UUID.randomUUID())
+			.name("Second Co")
+			.slug("second-co")
+			.updatedAt(LocalDateTime.of(2025, 1, 1, 0, 0))
+			.build();
+		when(companyRepository.findAllAfter(null, 2, Sort.Direction.DESC)).thenReturn(List.of(first, second));
+		when(companyToCompanyDtoMapper.companyToCompanyDto(first))
+			.thenReturn(new CompanyDto(first.getId(), first.getSlug(), first.getName(), first.getUpdatedAt()));
+
+		// when
+		CompanyCursorPageResponse result = companyService.getAllByCursor("", 1, "desc");
+
+		// then
+		assertEquals(1, result.content().size());
+		assertEquals(first.getId(), result.content().get(0).id());
+		assertEquals(CompanyCursor.of(first), CompanyCursor.decode(result.nextCursor()));
+	}
+
+	@Test
+	void getAllByCursor_returnsNullCursor_onLastPage() {
+		// given
+		CompanyCursor cursor = new CompanyCursor(LocalDateTime.of(2025, 1, 2, 0, 0), UUID.randomUUID());
+		Company company = Company.builder()
+			.id(UUID.randomUUID())
+			.name("Test Co")
+			.slug("test-co")
+			.updatedAt(LocalDateTime.of(2025, 1, 1, 0, 0))
+			.build();
+		when(companyRepository.findAllAfter(cursor, 21, Sort.Direction.DESC)).thenReturn(List.of(company));
+		when(companyToCompanyDtoMapper.companyToCompanyDto(company))
+			.thenReturn(new CompanyDto(company.getId(), company.getSlug(), company.getName(), company.getUpdatedAt()));
+
+		// when
+		CompanyCursorPageResponse result = companyService.getAllByCursor(cursor.encode(), 20, "desc");
+
+		// then
+		assertEquals(1, result.content().size());
+		assertNull(result.nextCursor());
+	}
+
+	@Test
+	void getAllByCursor_throwsInvalidCursorException_whenCursorIsMalformed() {
+		// when & then
+		assertThrows(InvalidCursorException.class, () -> companyService.getAllByCursor("not-a-cursor", 20, "desc"));
+	}
+
+	@Test
+	void getAllByCursor_throwsInvalidPageSizeException_whenSizeIsOutOfRange() {
+		// when & then
+		assertThrows(InvalidPageSizeException.class, () -> companyService.getAllByCursor("", 0, "desc"));
+		assertThrows(InvalidPageSizeException.class, () -> companyService.getAllByCursor("", 101, "desc"));
+		verifyNoInteractions(companyRepository);
+	}
+
+	@Test
+	void getETag_isBuiltFromCompaniesVersion() {
+		// given
+		when(versionService.getVersion("companies")).thenReturn(7L);
+
+		// when
+		String etag = companyService.getETag();
+
+		// then
+		assertEquals("companies-7", etag);
+		verifyNoInteractions(companyRepository);
+	}
+
 	@Test
 	void get_returnsCompanyDto() {
 		// given
@@ -207,6 +344,7 @@ class CompanyServiceTest {
 
 		// then
 		verify(companyRepository).deleteById(id);
+		verify(versionService).bumpVersion("companies");
 	}
 
 }
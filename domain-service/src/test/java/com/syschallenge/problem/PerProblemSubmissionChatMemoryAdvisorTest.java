@@ -0,0 +1,159 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.syschallenge.problem.configuration.PerProblemSubmissionChatMemoryAdvisor;
+import com.syschallenge.problem.model.ProblemSubmissionMessage;
+import com.syschallenge.problem.model.ProblemSubmissionMessageSide;
+import com.syschallenge.problem.model.ProblemSubmissionSummarySnapshot;
+import com.syschallenge.problem.property.ProblemSubmissionConversationCacheProperty;
+import com.syschallenge.problem.repository.ProblemSubmissionMessageRepository;
+import com.syschallenge.problem.service.ProblemSubmissionConversationService;
+import com.syschallenge.problem.service.ProblemSubmissionSummaryService;
+import com.syschallenge.problem.util.TokenEstimatorUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class PerProblemSubmissionChatMemoryAdvisorTest {
+
+	@Mock
+	private ProblemSubmissionConversationService problemSubmissionConversationService;
+
+	@Mock
+	private ProblemSubmissionSummaryService problemSubmissionSummaryService;
+
+	@Test
+	void before_placesConversationWindowBetweenSystemAndUserMessages() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		when(problemSubmissionConversationService.getMessages(problemSubmissionId, 1000, null))
+			.thenReturn(List.of(new UserMessage("second"), new AssistantMessage("third")));
+		PerProblemSubmissionChatMemoryAdvisor advisor = new PerProblemSubmissionChatMemoryAdvisor(1000,
+				problemSubmissionConversationService, problemSubmissionSummaryService);
+		ChatClientRequest request = ChatClientRequest.builder()
+			.prompt(new Prompt(List.of(new SystemMessage("system"), new UserMessage("fourth"))))
+			.context("problemSubmissionMessageId", problemSubmissionId)
+			.build();
+
+		// when
+		ChatClientRequest result = advisor.before(request, null);
+
+		// then
+		assertEquals(List.of("system", "second", "third", "fourth"),
+				result.prompt().getInstructions().stream().map(Message::getText).toList());
+	}
+
+	@Test
+	void before_prependsSummary_andSpendsRestOfBudgetOnTail() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		String summary = "The candidate designs a URL shortener";
+		LocalDateTime summarizedUntil = LocalDateTime.of(2025, 1, 1, 12, 0);
+		int tailTokenBudget = 1000
+				- TokenEstimatorUtil.estimateMessageTokens("Summary of the earlier conversation:\n" + summary);
+		when(problemSubmissionSummaryService.getSummary(problemSubmissionId))
+			.thenReturn(new ProblemSubmissionSummarySnapshot(summary, summarizedUntil));
+		when(problemSubmissionConversationService.getMessages(problemSubmissionId, tailTokenBudget, summarizedUntil))
+			.thenReturn(List.of(new AssistantMessage("tail")));
+		PerProblemSubmissionChatMemoryAdvisor advisor = new PerProblemSubmissionChatMemoryAdvisor(1000,
+				problemSubmissionConversationService, problemSubmissionSummaryService);
+		ChatClientRequest request = ChatClientRequest.builder()
+			.prompt(new Prompt(List.of(new SystemMessage("system"), new UserMessage("question"))))
+			.context("problemSubmissionMessageId", problemSubmissionId)
+			.build();
+
+		// when
+		ChatClientRequest result = advisor.before(request, null);
+
+		// then
+		assertEquals(List.of("system", "Summary of the earlier conversation:\n" + summary, "tail", "question"),
+				result.prompt().getInstructions().stream().map(Message::getText).toList());
+	}
+
+	@Test
+	void before_sendsOnlyMessagesAfterSummary() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		LocalDateTime summarizedUntil = LocalDateTime.of(2025, 1, 1, 12, 0);
+		ListOperations<String, String> listOperations = mock();
+		StringRedisTemplate redisTemplate = mock();
+		when(redisTemplate.opsForList()).thenReturn(listOperations);
+		when(redisTemplate.opsForValue()).thenReturn(mock());
+		ProblemSubmissionMessageRepository problemSubmissionMessageRepository = mock();
+		when(problemSubmissionMessageRepository.findLatestByProblemSubmissionId(problemSubmissionId, 3))
+			.thenReturn(List.of(message(problemSubmissionId, "after", summarizedUntil.plusMinutes(1)),
+					message(problemSubmissionId, "folded", summarizedUntil),
+					message(problemSubmissionId, "older folded", summarizedUntil.minusMinutes(1))));
+		ProblemSubmissionConversationService conversationService = new ProblemSubmissionConversationService(3,
+				problemSubmissionMessageRepository, redisTemplate, mock(RedisMessageListenerContainer.class),
+				new SimpleMeterRegistry(), new ProblemSubmissionConversationCacheProperty(100, Duration.ofMinutes(30)));
+		when(problemSubmissionSummaryService.getSummary(problemSubmissionId))
+			.thenReturn(new ProblemSubmissionSummarySnapshot("summary", summarizedUntil));
+		PerProblemSubmissionChatMemoryAdvisor advisor = new PerProblemSubmissionChatMemoryAdvisor(1000,
+				conversationService, problemSubmissionSummaryService);
+		ChatClientRequest request = ChatClientRequest.builder()
+			.prompt(new Prompt(List.of(new SystemMessage("system"), new UserMessage("question"))))
+			.context("problemSubmissionMessageId", problemSubmissionId)
+			.build();
+
+		// when
+		ChatClientRequest result = advisor.before(request, null);
+
+		// then
+		assertEquals(List.of("system", "Summary of the earlier conversation:\nsummary", "after", "question"),
+				result.prompt().getInstructions().stream().map(Message::getText).toList());
+	}
+
+	private static ProblemSubmissionMessage message(UUID problemSubmissionId, String text, LocalDateTime createdAt) {
+		return ProblemSubmissionMessage.builder()
+			.id(UUID.randomUUID())
+			.problemSubmissionId(problemSubmissionId)
+			.side(ProblemSubmissionMessageSide.USER)
+			.text(text)
+			.createdAt(createdAt)
+			.build();
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.http.codec.ServerSentEvent;
+
+import com.syschallenge.problem.exception.ProblemSubmissionAlreadySubmittedException;
+import com.syschallenge.problem.exception.ProblemSubmissionNotFoundException;
+import com.syschallenge.problem.model.ProblemSubmission;
+import com.syschallenge.problem.model.ProblemSubmissionMessage;
+import com.syschallenge.problem.model.ProblemSubmissionStatus;
+import com.syschallenge.problem.repository.ProblemPromptRepository;
+import com.syschallenge.problem.repository.ProblemSubmissionRepository;
+import com.syschallenge.problem.service.ProblemSubmissionChatService;
+import com.syschallenge.problem.service.ProblemSubmissionMessageService;
+import com.syschallenge.shared.exception.PermissionDeniedException;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ProblemSubmissionChatServiceTest {
+
+	@Mock
+	private ProblemSubmissionRepository problemSubmissionRepository;
+
+	@Mock
+	private ProblemPromptRepository problemPromptRepository;
+
+	@Mock
+	private ProblemSubmissionMessageService problemSubmissionMessageService;
+
+	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
+	private ChatClient chatClient;
+
+	private ProblemSubmissionChatService problemSubmissionChatService;
+
+	@BeforeEach
+	void setUp() {
+		this.problemSubmissionChatService = new ProblemSubmissionChatService(this.problemSubmissionRepository,
+				this.problemPromptRepository, this.problemSubmissionMessageService, this.chatClient);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void stream_emitsChunksThenPersistsWholeTurnOnce() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		UUID userId = UUID.randomUUID();
+		UUID answerId = UUID.randomUUID();
+		when(problemSubmissionRepository.findById(problemSubmissionId)).thenReturn(ProblemSubmission.builder()
+			.id(problemSubmissionId)
+			.userId(userId)
+			.problemId(1L)
+			.status(ProblemSubmissionStatus.PENDING)
+			.build());
+		when(chatClient.prompt().system(anyString()).user("question").advisors(any(Consumer.class)).stream().content())
+			.thenReturn(Flux.just("Load ", "balancer", "."));
+		when(problemSubmissionMessageService.createTurn(eq(problemSubmissionId), eq("question"),
+				any(LocalDateTime.class), eq("Load balancer.")))
+			.thenReturn(ProblemSubmissionMessage.builder().id(answerId).build());
+
+		// when
+		List<ServerSentEvent<String>> events = problemSubmissionChatService
+			.stream(problemSubmissionId, "question", userId)
+			.collectList()
+			.block();
+
+		// then
+		assertEquals(List.of("token", "token", "token", "done"), events.stream().map(ServerSentEvent::event).toList());
+		assertEquals(List.of("Load ", "balancer", ".", answerId.toString()),
+				events.stream().map(ServerSentEvent::data).toList());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void stream_persistsNothing_whenGenerationFails() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		UUID userId = UUID.randomUUID();
+		when(problemSubmissionRepository.findById(problemSubmissionId)).thenReturn(ProblemSubmission.builder()
+			.id(problemSubmissionId)
+			.userId(userId)
+			.problemId(1L)
+			.status(ProblemSubmissionStatus.PENDING)
+			.build());
+		when(chatClient.prompt().system(anyString()).user("question").advisors(any(Consumer.class)).stream().content())
+			.thenReturn(Flux.concat(Flux.just("Load "), Flux.error(new IllegalStateException("model is down"))));
+
+		// when
+		Flux<ServerSentEvent<String>> events = problemSubmissionChatService.stream(problemSubmissionId, "question",
+				userId);
+
+		// then
+		assertThrows(IllegalStateException.class, events::blockLast);
+		verify(problemSubmissionMessageService, never()).createTurn(any(), any(), any(), any());
+	}
+
+	@Test
+	void stream_throwsPermissionDenied_whenSubmissionBelongsToAnotherUser() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		when(problemSubmissionRepository.findById(problemSubmissionId)).thenReturn(
+				ProblemSubmission.builder().id(problemSubmissionId).userId(UUID.randomUUID()).problemId(1L).build());
+
+		// when & then
+		assertThrows(PermissionDeniedException.class,
+				() -> problemSubmissionChatService.stream(problemSubmissionId, "question", UUID.randomUUID()));
+	}
+
+	@Test
+	void stream_throwsNotFound_whenSubmissionDoesNotExist() {
+		// when & then
+		assertThrows(ProblemSubmissionNotFoundException.class,
+				() -> problemSubmissionChatService.stream(UUID.randomUUID(), "question", UUID.randomUUID()));
+	}
+
+	@Test
+	void stream_throwsProblemSubmissionAlreadySubmittedException_whenSubmitted() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		UUID userId = UUID.randomUUID();
+		when(problemSubmissionRepository.findById(problemSubmissionId)).thenReturn(ProblemSubmission.builder()
+			.id(problemSubmissionId)
+			.userId(userId)
+			.problemId(1L)
+			.status(ProblemSubmissionStatus.SUBMITTED)
+			.build());
+
+		// when & then
+		assertThrows(ProblemSubmissionAlreadySubmittedException.class,
+				() -> problemSubmissionChatService.stream(problemSubmissionId, "question", userId));
+		verify(problemSubmissionMessageService, never()).createTurn(any(), any(), any(), any());
+	}
+
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.syschallenge.problem.model.ProblemSubmissionMessage;
+import com.syschallenge.problem.model.ProblemSubmissionMessageSide;
+import com.syschallenge.problem.property.ProblemSubmissionConversationCacheProperty;
+import com.syschallenge.problem.repository.ProblemSubmissionMessageRepository;
+import com.syschallenge.problem.service.ProblemSubmissionConversationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ProblemSubmissionConversationServiceTest {
+
+	@Mock
+	private ProblemSubmissionMessageRepository problemSubmissionMessageRepository;
+
+	@Mock
+	private StringRedisTemplate redisTemplate;
+
+	@Mock
+	private ListOperations<String, String> listOperations;
+
+	@Mock
+	private ValueOperations<String, String> valueOperations;
+
+	@Mock
+	private RedisMessageListenerContainer listenerContainer;
+
+	private ProblemSubmissionConversationService problemSubmissionConversationService;
+
+	@BeforeEach
+	void setUp() {
+		lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		this.problemSubmissionConversationService = createService();
+	}
+
+	@Test
+	void getMessages_loadsFromDatabaseOnce_andMirrorsToRedis() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		when(redisTemplate.opsForList()).thenReturn(listOperations);
+		when(problemSubmissionMessageRepository.findLatestByProblemSubmissionId(problemSubmissionId, 2))
+			.thenReturn(List.of(message(problemSubmissionId, ProblemSubmissionMessageSide.ASSISTANT, "second"),
+					message(problemSubmissionId, ProblemSubmissionMessageSide.USER, "first")));
+
+		// when
+		List<Message> first = problemSubmissionConversationService.getMessages(problemSubmissionId, 1000, null);
+		List<Message> second = problemSubmissionConversationService.getMessages(problemSubmissionId, 1000, null);
+
+		// then
+		assertEquals(List.of("first", "second"), first.stream().map(Message::getText).toList());
+		assertEquals(first, second);
+		verify(problemSubmissionMessageRepository, times(1)).findLatestByProblemSubmissionId(problemSubmissionId, 2);
+		String key = "problem:submission:conversation:" + problemSubmissionId;
+		verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(key, key + ":version")), any(Object[].class));
+	}
+
+	@Test
+	void getMessages_doesNotMirrorWindow_whenMessageIsAppendedDuringDatabaseRead() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		String key = "problem:submission:conversation:" + problemSubmissionId;
+		AtomicLong version = new AtomicLong();
+		AtomicReference<List<String>> mirror = new AtomicReference<>();
+		when(redisTemplate.opsForList()).thenReturn(listOperations);
+		when(valueOperations.get(key + ":version")).thenAnswer(invocation -> String.valueOf(version.get()));
+		when(valueOperations.increment(key + ":version")).thenAnswer(invocation -> version.incrementAndGet());
+		when(listOperations.range(key, 0, -1)).thenAnswer(invocation -> mirror.get());
+		when(listOperations.rightPushIfPresent(eq(key), any())).thenReturn(0L);
+		when(redisTemplate.execute(any(RedisScript.class), eq(List.of(key, key + ":version")), any(Object[].class)))
+			.thenAnswer(invocation -> {
+				Object[] args = Arrays.copyOfRange(invocation.getArguments(), 2, invocation.getArguments().length);
+				if (!args[0].equals(String.valueOf(version.get())) || mirror.get() != null) {
+					return 0L;
+				}
+				mirror.set(Arrays.stream(args, 2, args.length).map(String.class::cast).toList());
+				return 1L;
+			});
+		ProblemSubmissionConversationService otherNode = createService();
+		ProblemSubmissionMessage first = message(problemSubmissionId, ProblemSubmissionMessageSide.USER, "first");
+		ProblemSubmissionMessage second = message(problemSubmissionId, ProblemSubmissionMessageSide.ASSISTANT,
+				"second");
+		when(problemSubmissionMessageRepository.findLatestByProblemSubmissionId(problemSubmissionId, 2))
+			.thenAnswer(invocation -> {
+				// the second message is persisted and appended on another node right
+				// after
+				// this read
+				otherNode.append(second);
+				return List.of(first);
+			})
+			.thenReturn(List.of(second, first));
+
+		// when
+		problemSubmissionConversationService.getMessages(problemSubmissionId, 1000, null);
+
+		// then
+		assertNull(mirror.get());
+		assertEquals(List.of("first", "second"),
+				otherNode.getMessages(problemSubmissionId, 1000, null).stream().map(Message::getText).toList());
+		assertEquals(2, mirror.get().size());
+	}
+
+	@Test
+	void getMessages_usesRedisTier_whenMirroredByAnotherNode() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		when(redisTemplate.opsForList()).thenReturn(listOperations);
+		when(listOperations.range("problem:submission:conversation:" + problemSubmissionId, 0, -1))
+			.thenReturn(List.of(UUID.randomUUID() + "|USER|2025-01-01T12:00|hello | world"));
+
+		// when
+		List<Message> messages = problemSubmissionConversationService.getMessages(problemSubmissionId, 1000, null);
+
+		// then
+		assertEquals(List.of("hello | world"), messages.stream().map(Message::getText).toList());
+		verify(problemSubmissionMessageRepository, never()).findLatestByProblemSubmissionId(any(), anyInt());
+	}
+
+	@Test
+	void append_slidesCachedWindow_withoutDatabaseAccess() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		when(redisTemplate.opsForList()).thenReturn(listOperations);
+		when(problemSubmissionMessageRepository.findLatestByProblemSubmissionId(problemSubmissionId, 2))
+			.thenReturn(List.of(message(problemSubmissionId, ProblemSubmissionMessageSide.ASSISTANT, "second"),
+					message(problemSubmissionId, ProblemSubmissionMessageSide.USER, "first")));
+		problemSubmissionConversationService.getMessages(problemSubmissionId, 1000, null);
+		ProblemSubmissionMessage third = message(problemSubmissionId, ProblemSubmissionMessageSide.USER, "third");
+
+		// when
+		problemSubmissionConversationService.append(third);
+		problemSubmissionConversationService.append(third);
+
+		// then
+		assertEquals(List.of("second", "third"),
+				problemSubmissionConversationService.getMessages(problemSubmissionId, 1000, null)
+					.stream()
+					.map(Message::getText)
+					.toList());
+		verify(problemSubmissionMessageRepository, times(1)).findLatestByProblemSubmissionId(problemSubmissionId, 2);
+		verify(listOperations, times(2)).rightPushIfPresent("problem:submission:conversation:" + problemSubmissionId,
+				third.getId() + "|USER|" + third.getCreatedAt() + "|third");
+	}
+
+	@Test
+	void getMessages_packsNewestMessagesIntoTokenBudget() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		when(redisTemplate.opsForList()).thenReturn(listOperations);
+		when(problemSubmissionMessageRepository.findLatestByProblemSubmissionId(problemSubmissionId, 2))
+			.thenReturn(List.of(message(problemSubmissionId, ProblemSubmissionMessageSide.ASSISTANT, "short"),
+					message(problemSubmissionId, ProblemSubmissionMessageSide.USER, "long ".repeat(100))));
+
+		// when
+		List<Message> messages = problemSubmissionConversationService.getMessages(problemSubmissionId, 50, null);
+
+		// then
+		assertEquals(List.of("short"), messages.stream().map(Message::getText).toList());
+	}
+
+	@Test
+	void getMessages_skipsMessagesCreatedBeforeCutoff() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		LocalDateTime cutoff = LocalDateTime.of(2025, 1, 1, 12, 0);
+		when(redisTemplate.opsForList()).thenReturn(listOperations);
+		when(problemSubmissionMessageRepository.findLatestByProblemSubmissionId(problemSubmissionId, 2)).thenReturn(List
+			.of(message(problemSubmissionId, ProblemSubmissionMessageSide.ASSISTANT, "after", cutoff.plusMinutes(1)),
+					message(problemSubmissionId, ProblemSubmissionMessageSide.USER, "folded", cutoff)));
+
+		// when
+		List<Message> messages = problemSubmissionConversationService.getMessages(problemSubmissionId, 1000, cutoff);
+
+		// then
+		assertEquals(List.of("after"), messages.stream().map(Message::getText).toList());
+		verify(problemSubmissionMessageRepository, never()).findByProblemSubmissionIdCreatedAfter(any(), any());
+	}
+
+	@Test
+	void getMessages_readsDatabase_whenCutoffLagsBehindWindow() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		LocalDateTime cutoff = LocalDateTime.of(2025, 1, 1, 12, 0);
+		when(redisTemplate.opsForList()).thenReturn(listOperations);
+		when(problemSubmissionMessageRepository.findLatestByProblemSubmissionId(problemSubmissionId, 2)).thenReturn(List
+			.of(message(problemSubmissionId, ProblemSubmissionMessageSide.ASSISTANT, "third", cutoff.plusMinutes(3)),
+					message(problemSubmissionId, ProblemSubmissionMessageSide.USER, "second", cutoff.plusMinutes(2))));
+		when(problemSubmissionMessageRepository.findByProblemSubmissionIdCreatedAfter(problemSubmissionId, cutoff))
+			.thenReturn(List.of(
+					message(problemSubmissionId, ProblemSubmissionMessageSide.ASSISTANT, "first",
+							cutoff.plusMinutes(1)),
+					message(problemSubmissionId, ProblemSubmissionMessageSide.USER, "second", cutoff.plusMinutes(2)),
+					message(problemSubmissionId, ProblemSubmissionMessageSide.ASSISTANT, "third",
+							cutoff.plusMinutes(3))));
+
+		// when
+		List<Message> messages = problemSubmissionConversationService.getMessages(problemSubmissionId, 1000, cutoff);
+
+		// then
+		assertEquals(List.of("first", "second", "third"), messages.stream().map(Message::getText).toList());
+	}
+
+	@Test
+	void onMessage_dropsWindow_onlyForChangesFromOtherNodes() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		when(redisTemplate.opsForList()).thenReturn(listOperations);
+		when(problemSubmissionMessageRepository.findLatestByProblemSubmissionId(problemSubmissionId, 2))
+			.thenReturn(List.of());
+		problemSubmissionConversationService.getMessages(problemSubmissionId, 1000, null);
+		byte[] channel = "problem:submission:conversation:invalidation".getBytes(StandardCharsets.UTF_8);
+
+		// when
+		problemSubmissionConversationService.onMessage(new DefaultMessage(channel,
+				(UUID.randomUUID() + "|" + problemSubmissionId).getBytes(StandardCharsets.UTF_8)), null);
+		problemSubmissionConversationService.getMessages(problemSubmissionId, 1000, null);
+
+		// then
+		verify(problemSubmissionMessageRepository, times(2)).findLatestByProblemSubmissionId(problemSubmissionId, 2);
+	}
+
+	private ProblemSubmissionConversationService createService() {
+		return new ProblemSubmissionConversationService(2, this.problemSubmissionMessageRepository, this.redisTemplate,
+				this.listenerContainer, new SimpleMeterRegistry(),
+				new ProblemSubmissionConversationCacheProperty(100, Duration.ofMinutes(30)));
+	}
+
+	private static ProblemSubmissionMessage message(UUID problemSubmissionId, ProblemSubmissionMessageSide side,
+			String text) {
+		return message(problemSubmissionId, side, text, LocalDateTime.now());
+	}
+
+	private static ProblemSubmissionMessage message(UUID problemSubmissionId, ProblemSubmissionMessageSide side,
+			String text, LocalDateTime createdAt) {
+		return ProblemSubmissionMessage.builder()
+			.id(UUID.randomUUID())
+			.problemSubmissionId(problemSubmissionId)
+			.side(side)
+			.text(text)
+			.createdAt(createdAt)
+			.build();
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatModel;
+
+import com.syschallenge.problem.model.ProblemPrompt;
+import com.syschallenge.problem.model.ProblemSubmission;
+import com.syschallenge.problem.model.ProblemSubmissionStatus;
+import com.syschallenge.problem.property.ProblemSubmissionEvaluationProperty;
+import com.syschallenge.problem.repository.ProblemPromptRepository;
+import com.syschallenge.problem.repository.ProblemSubmissionMessageRepository;
+import com.syschallenge.problem.repository.ProblemSubmissionRepository;
+import com.syschallenge.problem.service.ProblemSubmissionEvaluationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ProblemSubmissionEvaluationServiceTest {
+
+	@Mock
+	private ProblemSubmissionRepository problemSubmissionRepository;
+
+	@Mock
+	private ProblemPromptRepository problemPromptRepository;
+
+	@Mock
+	private ProblemSubmissionMessageRepository problemSubmissionMessageRepository;
+
+	@Mock
+	private ChatModel chatModel;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private ProblemSubmissionEvaluationService problemSubmissionEvaluationService;
+
+	@BeforeEach
+	void setUp() {
+		this.problemSubmissionEvaluationService = new ProblemSubmissionEvaluationService(
+				this.problemSubmissionRepository, this.problemPromptRepository, this.problemSubmissionMessageRepository,
+				this.chatModel, this.meterRegistry,
+				new ProblemSubmissionEvaluationProperty(true, 2, Duration.ofSeconds(1), Duration.ofMinutes(10), 3),
+				false);
+	}
+
+	@Test
+	void poll_claimsAsManySubmissionsAsThereAreFreeWorkers() {
+		// given
+		when(problemSubmissionRepository.claimForEvaluation(eq(2), eq(3), any(LocalDateTime.class)))
+			.thenReturn(List.of());
+
+		// when
+		problemSubmissionEvaluationService.poll();
+
+		// then
+		verify(problemSubmissionRepository).claimForEvaluation(eq(2), eq(3), any(LocalDateTime.class));
+	}
+
+	@Test
+	void poll_countsAbandonedSubmissionsWithoutAttemptsLeft() {
+		// given
+		when(problemSubmissionRepository.failAbandoned(eq(3), any(LocalDateTime.class))).thenReturn(2);
+		when(problemSubmissionRepository.claimForEvaluation(eq(2), eq(3), any(LocalDateTime.class)))
+			.thenReturn(List.of());
+
+		// when
+		problemSubmissionEvaluationService.poll();
+
+		// then
+		assertEquals(2, meterRegistry.get("problem.submission.evaluation.exhausted").counter().count());
+	}
+
+	@Test
+	void evaluate_marksSubmissionProcessed_withModelEvaluation() {
+		// given
+		ProblemSubmission problemSubmission = claimedSubmission();
+		when(problemPromptRepository.findByProblemId(1L))
+			.thenReturn(ProblemPrompt.builder().problemId(1L).thinkText("Evaluate the design").build());
+		when(problemSubmissionMessageRepository.findByProblemSubmissionIdCreatedAfter(problemSubmission.getId(), null))
+			.thenReturn(List.of());
+		when(chatModel.call(any(Message.class), any(Message.class))).thenReturn("Solid design");
+		when(problemSubmissionRepository.markProcessed(problemSubmission.getId(), problemSubmission.getClaimedAt(),
+				"Solid design"))
+			.thenReturn(true);
+
+		// when
+		problemSubmissionEvaluationService.evaluate(problemSubmission);
+
+		// then
+		verify(problemSubmissionRepository).markProcessed(problemSubmission.getId(), problemSubmission.getClaimedAt(),
+				"Solid design");
+		assertEquals(1,
+				meterRegistry.get("problem.submission.evaluation.processing")
+					.tag("result", "processed")
+					.timer()
+					.count());
+		verify(problemSubmissionRepository, never()).release(any(), any(), anyInt());
+	}
+
+	@Test
+	void evaluate_doesNotCountAsProcessed_whenClaimHasExpired() {
+		// given
+		ProblemSubmission problemSubmission = claimedSubmission();
+		when(problemSubmissionMessageRepository.findByProblemSubmissionIdCreatedAfter(problemSubmission.getId(), null))
+			.thenReturn(List.of());
+		when(chatModel.call(any(Message.class), any(Message.class))).thenReturn("Solid design");
+
+		// when
+		problemSubmissionEvaluationService.evaluate(problemSubmission);
+
+		// then
+		assertEquals(0,
+				meterRegistry.get("problem.submission.evaluation.processing")
+					.tag("result", "processed")
+					.timer()
+					.count());
+		assertEquals(1,
+				meterRegistry.get("problem.submission.evaluation.processing").tag("result", "expired").timer().count());
+	}
+
+	@Test
+	void evaluate_releasesSubmission_whenModelFails() {
+		// given
+		ProblemSubmission problemSubmission = claimedSubmission();
+		when(problemSubmissionMessageRepository.findByProblemSubmissionIdCreatedAfter(problemSubmission.getId(), null))
+			.thenReturn(List.of());
+		when(chatModel.call(any(Message.class), any(Message.class))).thenThrow(new IllegalStateException("timeout"));
+
+		// when
+		problemSubmissionEvaluationService.evaluate(problemSubmission);
+
+		// then
+		verify(problemSubmissionRepository).release(problemSubmission.getId(), problemSubmission.getClaimedAt(), 3);
+		verify(problemSubmissionRepository, never()).markProcessed(any(), any(), any());
+		assertEquals(1,
+				meterRegistry.get("problem.submission.evaluation.errors").tag("stage", "evaluate").counter().count());
+	}
+
+	@Test
+	void evaluate_countsExhaustedSubmission_whenLastAttemptFails() {
+		// given
+		ProblemSubmission problemSubmission = claimedSubmission();
+		when(problemSubmissionMessageRepository.findByProblemSubmissionIdCreatedAfter(problemSubmission.getId(), null))
+			.thenReturn(List.of());
+		when(chatModel.call(any(Message.class), any(Message.class))).thenThrow(new IllegalStateException("timeout"));
+		when(problemSubmissionRepository.release(problemSubmission.getId(), problemSubmission.getClaimedAt(), 3))
+			.thenReturn(true);
+
+		// when
+		problemSubmissionEvaluationService.evaluate(problemSubmission);
+
+		// then
+		assertEquals(1, meterRegistry.get("problem.submission.evaluation.exhausted").counter().count());
+	}
+
+	private static ProblemSubmission claimedSubmission() {
+		return ProblemSubmission.builder()
+			.id(UUID.randomUUID())
+			.userId(UUID.randomUUID())
+			.problemId(1L)
+			.status(ProblemSubmissionStatus.PROCESSING)
+			.attempts(1)
+			.claimedAt(LocalDateTime.now())
+			.build();
+	}
+
+}
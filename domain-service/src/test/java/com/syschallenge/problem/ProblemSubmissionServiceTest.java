@@ -0,0 +1,105 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.syschallenge.problem.exception.ProblemSubmissionAlreadySubmittedException;
+import com.syschallenge.problem.model.ProblemSubmission;
+import com.syschallenge.problem.model.ProblemSubmissionStatus;
+import com.syschallenge.problem.repository.ProblemSubmissionRepository;
+import com.syschallenge.problem.service.ProblemSubmissionService;
+import com.syschallenge.shared.exception.PermissionDeniedException;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ProblemSubmissionServiceTest {
+
+	@Mock
+	private ProblemSubmissionRepository problemSubmissionRepository;
+
+	@InjectMocks
+	private ProblemSubmissionService problemSubmissionService;
+
+	@Test
+	void submit_submitsPendingSubmission() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		UUID userId = UUID.randomUUID();
+		when(problemSubmissionRepository.findById(problemSubmissionId))
+			.thenReturn(submission(problemSubmissionId, userId));
+		when(problemSubmissionRepository.submit(problemSubmissionId)).thenReturn(true);
+
+		// when
+		problemSubmissionService.submit(problemSubmissionId, userId);
+
+		// then
+		verify(problemSubmissionRepository).submit(problemSubmissionId);
+	}
+
+	@Test
+	void submit_throwsProblemSubmissionAlreadySubmittedException_whenNotPending() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		UUID userId = UUID.randomUUID();
+		when(problemSubmissionRepository.findById(problemSubmissionId))
+			.thenReturn(submission(problemSubmissionId, userId));
+		when(problemSubmissionRepository.submit(problemSubmissionId)).thenReturn(false);
+
+		// when & then
+		assertThrows(ProblemSubmissionAlreadySubmittedException.class,
+				() -> problemSubmissionService.submit(problemSubmissionId, userId));
+	}
+
+	@Test
+	void submit_throwsPermissionDeniedException_whenSubmissionBelongsToAnotherUser() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		when(problemSubmissionRepository.findById(problemSubmissionId))
+			.thenReturn(submission(problemSubmissionId, UUID.randomUUID()));
+
+		// when & then
+		assertThrows(PermissionDeniedException.class,
+				() -> problemSubmissionService.submit(problemSubmissionId, UUID.randomUUID()));
+		verify(problemSubmissionRepository, never()).submit(any());
+	}
+
+	private static ProblemSubmission submission(UUID id, UUID userId) {
+		return ProblemSubmission.builder()
+			.id(id)
+			.userId(userId)
+			.problemId(1L)
+			.status(ProblemSubmissionStatus.PENDING)
+			.build();
+	}
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatModel;
+
+import com.syschallenge.problem.model.ProblemSubmissionMessage;
+import com.syschallenge.problem.model.ProblemSubmissionMessageSide;
+import com.syschallenge.problem.model.ProblemSubmissionSummary;
+import com.syschallenge.problem.model.ProblemSubmissionSummarySnapshot;
+import com.syschallenge.problem.property.ProblemSubmissionSummaryProperty;
+import com.syschallenge.problem.repository.ProblemSubmissionMessageRepository;
+import com.syschallenge.problem.repository.ProblemSubmissionSummaryRepository;
+import com.syschallenge.problem.service.ProblemSubmissionSummaryService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ProblemSubmissionSummaryServiceTest {
+
+	@Mock
+	private ProblemSubmissionMessageRepository problemSubmissionMessageRepository;
+
+	@Mock
+	private ProblemSubmissionSummaryRepository problemSubmissionSummaryRepository;
+
+	@Mock
+	private ChatModel chatModel;
+
+	private ProblemSubmissionSummaryService problemSubmissionSummaryService;
+
+	@BeforeEach
+	void setUp() {
+		this.problemSubmissionSummaryService = new ProblemSubmissionSummaryService(
+				this.problemSubmissionMessageRepository, this.problemSubmissionSummaryRepository, this.chatModel,
+				new SimpleMeterRegistry(),
+				new ProblemSubmissionSummaryProperty(4, 2, 1, 10, 100, Duration.ofMinutes(1)), false);
+	}
+
+	@Test
+	void summarize_foldsAllButTail_whenEnoughMessagesAreNotSummarized() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+		List<ProblemSubmissionMessage> messages = IntStream.range(0, 5)
+			.mapToObj(i -> ProblemSubmissionMessage.builder()
+				.id(UUID.randomUUID())
+				.problemSubmissionId(problemSubmissionId)
+				.side(i % 2 == 0 ? ProblemSubmissionMessageSide.USER : ProblemSubmissionMessageSide.ASSISTANT)
+				.text("message " + i)
+				.createdAt(start.plusMinutes(i))
+				.build())
+			.toList();
+		when(problemSubmissionMessageRepository.findByProblemSubmissionIdCreatedAfter(problemSubmissionId, null))
+			.thenReturn(messages);
+		when(chatModel.call(any(Message.class), any(Message.class))).thenReturn("summary");
+		when(problemSubmissionSummaryRepository.upsert(any(ProblemSubmissionSummary.class)))
+			.thenAnswer(invocation -> invocation.getArgument(0));
+
+		// when
+		problemSubmissionSummaryService.summarize(problemSubmissionId);
+
+		// then
+		ArgumentCaptor<ProblemSubmissionSummary> summary = ArgumentCaptor.forClass(ProblemSubmissionSummary.class);
+		verify(problemSubmissionSummaryRepository).upsert(summary.capture());
+		assertEquals("summary", summary.getValue().getText());
+		assertEquals(start.plusMinutes(2), summary.getValue().getSummarizedUntil());
+		assertEquals(new ProblemSubmissionSummarySnapshot("summary", start.plusMinutes(2)),
+				problemSubmissionSummaryService.getSummary(problemSubmissionId));
+	}
+
+	@Test
+	void summarize_doesNotCacheSummary_whenNewerSummaryIsAlreadySaved() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+		List<ProblemSubmissionMessage> messages = IntStream.range(0, 5)
+			.mapToObj(i -> ProblemSubmissionMessage.builder()
+				.id(UUID.randomUUID())
+				.problemSubmissionId(problemSubmissionId)
+				.side(ProblemSubmissionMessageSide.USER)
+				.text("message " + i)
+				.createdAt(start.plusMinutes(i))
+				.build())
+			.toList();
+		ProblemSubmissionSummary newer = ProblemSubmissionSummary.builder()
+			.problemSubmissionId(problemSubmissionId)
+			.text("newer summary")
+			.summarizedUntil(start.plusMinutes(3))
+			.build();
+		when(problemSubmissionSummaryRepository.findByProblemSubmissionId(problemSubmissionId)).thenReturn(null, newer);
+		when(problemSubmissionMessageRepository.findByProblemSubmissionIdCreatedAfter(problemSubmissionId, null))
+			.thenReturn(messages);
+		when(chatModel.call(any(Message.class), any(Message.class))).thenReturn("older summary");
+		when(problemSubmissionSummaryRepository.upsert(any(ProblemSubmissionSummary.class))).thenReturn(null);
+
+		// when
+		problemSubmissionSummaryService.summarize(problemSubmissionId);
+
+		// then
+		assertEquals(new ProblemSubmissionSummarySnapshot("newer summary", start.plusMinutes(3)),
+				problemSubmissionSummaryService.getSummary(problemSubmissionId));
+	}
+
+	@Test
+	void summarize_doesNothing_whenTooFewMessagesAreNotSummarized() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		LocalDateTime summarizedUntil = LocalDateTime.now();
+		when(problemSubmissionSummaryRepository.findByProblemSubmissionId(problemSubmissionId))
+			.thenReturn(ProblemSubmissionSummary.builder()
+				.problemSubmissionId(problemSubmissionId)
+				.text("summary")
+				.summarizedUntil(summarizedUntil)
+				.build());
+		when(problemSubmissionMessageRepository.findByProblemSubmissionIdCreatedAfter(problemSubmissionId,
+				summarizedUntil))
+			.thenReturn(List.of());
+
+		// when
+		problemSubmissionSummaryService.summarize(problemSubmissionId);
+
+		// then
+		verify(chatModel, never()).call(any(Message.class), any(Message.class));
+		verify(problemSubmissionSummaryRepository, never()).upsert(any());
+	}
+
+	@Test
+	void summarize_doesNothing_whenTailIsLargerThanUnsummarizedMessages() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+		ProblemSubmissionSummaryService service = new ProblemSubmissionSummaryService(
+				this.problemSubmissionMessageRepository, this.problemSubmissionSummaryRepository, this.chatModel,
+				new SimpleMeterRegistry(),
+				new ProblemSubmissionSummaryProperty(1, 5, 1, 10, 100, Duration.ofMinutes(1)), false);
+		when(problemSubmissionMessageRepository.findByProblemSubmissionIdCreatedAfter(problemSubmissionId, null))
+			.thenReturn(List.of(ProblemSubmissionMessage.builder().text("first").build(),
+					ProblemSubmissionMessage.builder().text("second").build()));
+
+		// when
+		service.summarize(problemSubmissionId);
+
+		// then
+		verify(chatModel, never()).call(any(Message.class), any(Message.class));
+		verify(problemSubmissionSummaryRepository, never()).upsert(any());
+	}
+
+	@Test
+	void getSummary_returnsNull_whenSubmissionIsNotSummarized() {
+		// given
+		UUID problemSubmissionId = UUID.randomUUID();
+
+		// when & then
+		assertNull(problemSubmissionSummaryService.getSummary(problemSubmissionId));
+	}
+
+}
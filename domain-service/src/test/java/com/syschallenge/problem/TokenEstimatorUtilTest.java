@@ -0,0 +1,56 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.problem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.syschallenge.problem.util.TokenEstimatorUtil;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+class TokenEstimatorUtilTest {
+
+	@Test
+	void estimateMessageTokens_countsOnlyOverhead_forEmptyText() {
+		// when & then
+		assertEquals(4, TokenEstimatorUtil.estimateMessageTokens(""));
+	}
+
+	@Test
+	void estimateMessageTokens_countsWordsAndPunctuation() {
+		// when
+		int tokens = TokenEstimatorUtil.estimateMessageTokens("Hello, distributed world!");
+
+		// then
+		// overhead + "Hello" (2) + "," + "distributed" (3) + "world" (2) + "!"
+		assertEquals(13, tokens);
+	}
+
+	@Test
+	void estimateMessageTokens_countsEveryNonAsciiCharacter() {
+		// when
+		int tokens = TokenEstimatorUtil.estimateMessageTokens("кэш");
+
+		// then
+		assertEquals(7, tokens);
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ConnectionHoldTimeDataSourceTest {
+
+	@Mock
+	private DataSource targetDataSource;
+
+	@Mock
+	private Connection connection;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void getConnection_recordsHoldTimeOnce_whenClosed() throws SQLException {
+		// given
+		when(targetDataSource.getConnection()).thenReturn(connection);
+		ConnectionHoldTimeDataSource dataSource = new ConnectionHoldTimeDataSource(targetDataSource, meterRegistry);
+
+		// when
+		Connection held = dataSource.getConnection();
+		held.close();
+		held.close();
+
+		// then
+		verify(connection, times(2)).close();
+		assertEquals(1, meterRegistry.get("db.connection.hold").tag("endpoint", "none").timer().count());
+	}
+
+	@Test
+	void getConnection_tagsHoldTimeWithEndpoint_whenTakenForMappedRequest() throws SQLException {
+		// given
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/auth/social");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+		when(targetDataSource.getConnection()).thenReturn(connection);
+		ConnectionHoldTimeDataSource dataSource = new ConnectionHoldTimeDataSource(targetDataSource, meterRegistry);
+
+		// when
+		dataSource.getConnection().close();
+
+		// then
+		assertEquals(1, meterRegistry.get("db.connection.hold").tag("endpoint", "/api/v1/auth/social").timer().count());
+	}
+
+}
@@ -19,16 +19,19 @@ package com.syschallenge.shared.security.jwt;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import com.syschallenge.shared.security.UserDetails;
 
@@ -45,12 +48,10 @@ class JwtUtilTest {
 
 	@BeforeEach
 	void setUp() {
-		this.jwtUtil = new JwtUtil();
+		this.jwtUtil = new JwtUtil("Z3dlZ2VHR0dHRVdnd2Vhc2Rhc2RzYWRhc2Rhc2RzYWQ=");
 
 		MockitoAnnotations.openMocks(this);
 		when(userDetails.getUsername()).thenReturn("test-UUID");
-
-		ReflectionTestUtils.setField(jwtUtil, "SECRET", "Z3dlZ2VHR0dHRVdnd2Vhc2Rhc2RzYWRhc2Rhc2RzYWQ=");
 	}
 
 	@Test
@@ -86,4 +87,44 @@ class JwtUtilTest {
 		assertEquals("test-UUID", jwtUtil.extractIdFromToken(token));
 	}
 
+	@Test
+	void testVerifyToken() {
+		String token = jwtUtil.generateToken(userDetails);
+		VerifiedJwt verifiedJwt = jwtUtil.verifyToken(token);
+		assertNotNull(verifiedJwt);
+		assertEquals("test-UUID", verifiedJwt.subject());
+		assertTrue(verifiedJwt.expiration().after(new Date()));
+	}
+
+	@Test
+	void testVerifyToken_invalidSignature() {
+		String token = new JwtUtil("YW5vdGhlcnNlY3JldGFub3RoZXJzZWNyZXRhbm90aGVy").generateToken(userDetails);
+		assertNull(jwtUtil.verifyToken(token));
+	}
+
+	@Test
+	void testVerifyToken_malformed() {
+		assertNull(jwtUtil.verifyToken("not-a-jwt"));
+	}
+
+	@Test
+	void testVerifyToken_withRoleClaim() {
+		UserDetails adminDetails = new UserDetails(UUID.randomUUID(), List.of(new SimpleGrantedAuthority("ADMIN")));
+		String token = jwtUtil.generateToken(adminDetails, 3);
+		VerifiedJwt verifiedJwt = jwtUtil.verifyToken(token);
+		assertNotNull(verifiedJwt);
+		assertEquals(adminDetails.getUsername(), verifiedJwt.subject());
+		assertEquals("ADMIN", verifiedJwt.role());
+		assertEquals(3L, verifiedJwt.roleEpoch());
+	}
+
+	@Test
+	void testVerifyToken_withoutRoleClaim() {
+		String token = jwtUtil.generateToken(userDetails);
+		VerifiedJwt verifiedJwt = jwtUtil.verifyToken(token);
+		assertNotNull(verifiedJwt);
+		assertNull(verifiedJwt.role());
+		assertNull(verifiedJwt.roleEpoch());
+	}
+
 }
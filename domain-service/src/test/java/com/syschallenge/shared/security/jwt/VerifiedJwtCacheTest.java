@@ -0,0 +1,87 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.shared.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.syschallenge.shared.security.UserDetails;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+class VerifiedJwtCacheTest {
+
+	private JwtUtil jwtUtil;
+
+	private MeterRegistry meterRegistry;
+
+	private VerifiedJwtCache verifiedJwtCache;
+
+	@BeforeEach
+	void setUp() {
+		this.jwtUtil = spy(new JwtUtil("Z3dlZ2VHR0dHRVdnd2Vhc2Rhc2RzYWRhc2Rhc2RzYWQ="));
+		this.meterRegistry = new SimpleMeterRegistry();
+		this.verifiedJwtCache = new VerifiedJwtCache(this.jwtUtil, this.meterRegistry, 100);
+	}
+
+	@Test
+	void getOrVerify_verifiesTokenOnlyOnce() {
+		// given
+		UUID id = UUID.randomUUID();
+		String token = jwtUtil.generateToken(new UserDetails(id, List.of()));
+
+		// when
+		VerifiedJwt first = verifiedJwtCache.getOrVerify(token);
+		VerifiedJwt second = verifiedJwtCache.getOrVerify(token);
+
+		// then
+		assertNotNull(first);
+		assertEquals(id.toString(), first.subject());
+		assertEquals(first, second);
+		verify(jwtUtil, times(1)).verifyToken(token);
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+	}
+
+	@Test
+	void getOrVerify_doesNotCacheInvalidToken() {
+		// when
+		VerifiedJwt first = verifiedJwtCache.getOrVerify("not-a-jwt");
+		VerifiedJwt second = verifiedJwtCache.getOrVerify("not-a-jwt");
+
+		// then
+		assertNull(first);
+		assertNull(second);
+		verify(jwtUtil, times(2)).verifyToken("not-a-jwt");
+	}
+
+}
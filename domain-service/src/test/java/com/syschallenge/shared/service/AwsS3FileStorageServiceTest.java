@@ -24,15 +24,22 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.time.Duration;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
 
 import com.syschallenge.shared.service.impl.AwsS3FileStorageService;
 
-import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
@@ -42,6 +49,9 @@ import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
 /**
  * @author therepanic
@@ -53,6 +63,9 @@ class AwsS3FileStorageServiceTest {
 	@Mock
 	private S3Client s3Client;
 
+	@Mock
+	private S3Presigner s3Presigner;
+
 	@InjectMocks
 	private AwsS3FileStorageService awsS3StorageService;
 
@@ -61,32 +74,52 @@ class AwsS3FileStorageServiceTest {
 	private static final String FILE_NAME = "test-file.txt";
 
 	@Test
-	void testDownloadFile_success() {
+	void testDownloadFileAsResource_success() throws Exception {
 		// Arrange
 		byte[] expectedBytes = "test content".getBytes();
-		ResponseBytes<GetObjectResponse> responseBytes = mock(ResponseBytes.class);
-		when(responseBytes.asByteArray()).thenReturn(expectedBytes);
-		when(s3Client.getObjectAsBytes(any(GetObjectRequest.class))).thenReturn(responseBytes);
+		ResponseInputStream<GetObjectResponse> object = new ResponseInputStream<>(
+				GetObjectResponse.builder().contentLength((long) expectedBytes.length).build(),
+				new ByteArrayInputStream(expectedBytes));
+		when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(object);
 
 		// Act
-		byte[] result = awsS3StorageService.downloadFile(BUCKET_NAME, FILE_NAME);
+		Resource resource = awsS3StorageService.downloadFileAsResource(BUCKET_NAME, FILE_NAME);
 
 		// Assert
-		assertArrayEquals(expectedBytes, result);
-		verify(s3Client, times(1)).getObjectAsBytes(any(GetObjectRequest.class));
+		assertEquals(expectedBytes.length, resource.contentLength());
+		try (InputStream inputStream = resource.getInputStream()) {
+			assertArrayEquals(expectedBytes, inputStream.readAllBytes());
+		}
+		verify(s3Client, never()).getObjectAsBytes(any(GetObjectRequest.class));
 	}
 
 	@Test
-	void testDownloadFile_failure() {
+	void testDownloadFileAsResource_failure() {
 		// Arrange
 		S3Exception s3Exception = (S3Exception) S3Exception.builder().message("S3 error").build();
-		when(s3Client.getObjectAsBytes(any(GetObjectRequest.class))).thenThrow(s3Exception);
+		when(s3Client.getObject(any(GetObjectRequest.class))).thenThrow(s3Exception);
 
 		// Act & Assert
 		RuntimeException exception = assertThrows(RuntimeException.class,
-				() -> awsS3StorageService.downloadFile(BUCKET_NAME, FILE_NAME));
+				() -> awsS3StorageService.downloadFileAsResource(BUCKET_NAME, FILE_NAME));
 		assertEquals("File download error from S3", exception.getMessage());
-		verify(s3Client, times(1)).getObjectAsBytes(any(GetObjectRequest.class));
+	}
+
+	@Test
+	void testGeneratePresignedUrl_success() throws Exception {
+		// Arrange
+		PresignedGetObjectRequest presignedRequest = mock(PresignedGetObjectRequest.class);
+		when(presignedRequest.url()).thenReturn(new URL("https://storage.example.com/test-bucket/test-file.txt"));
+		ArgumentCaptor<GetObjectPresignRequest> requestCaptor = ArgumentCaptor.forClass(GetObjectPresignRequest.class);
+		when(s3Presigner.presignGetObject(requestCaptor.capture())).thenReturn(presignedRequest);
+
+		// Act
+		String url = awsS3StorageService.generatePresignedUrl(BUCKET_NAME, FILE_NAME, Duration.ofMinutes(10));
+
+		// Assert
+		assertEquals("https://storage.example.com/test-bucket/test-file.txt", url);
+		assertEquals(Duration.ofMinutes(10), requestCaptor.getValue().signatureDuration());
+		assertEquals(FILE_NAME, requestCaptor.getValue().getObjectRequest().key());
 	}
 
 	@Test
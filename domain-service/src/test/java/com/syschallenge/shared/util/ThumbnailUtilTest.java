@@ -0,0 +1,70 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.syschallenge.shared.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+class ThumbnailUtilTest {
+
+	@Test
+	void resize_returnsEmptyMap_whenThereAreNoSizes() throws IOException {
+		// given
+		byte[] image = createPng(100, 50);
+
+		// when
+		Map<Integer, BufferedImage> variants = ThumbnailUtil.resize(image, List.of());
+
+		// then
+		assertTrue(variants.isEmpty());
+	}
+
+	@Test
+	void resize_keepsImageDimensions_whenSizeIsLargerThanImage() throws IOException {
+		// given
+		byte[] image = createPng(100, 50);
+
+		// when
+		Map<Integer, BufferedImage> variants = ThumbnailUtil.resize(image, List.of(40, 400));
+
+		// then
+		assertEquals(100, variants.get(400).getWidth());
+		assertEquals(50, variants.get(400).getHeight());
+		assertEquals(40, variants.get(40).getWidth());
+		assertEquals(20, variants.get(40).getHeight());
+	}
+
+	private static byte[] createPng(int width, int height) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", outputStream);
+		return outputStream.toByteArray();
+	}
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.topic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.syschallenge.shared.service.VersionService;
+import com.syschallenge.topic.dto.TopicDto;
+import com.syschallenge.topic.mapper.TopicToTopicDtoMapper;
+import com.syschallenge.topic.model.Topic;
+import com.syschallenge.topic.model.TopicCatalogue;
+import com.syschallenge.topic.property.TopicCatalogueProperty;
+import com.syschallenge.topic.repository.TopicRepository;
+import com.syschallenge.topic.service.TopicCatalogueService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class TopicCatalogueServiceTest {
+
+	@Mock
+	private TopicRepository topicRepository;
+
+	@Mock
+	private TopicToTopicDtoMapper topicToTopicDtoMapper;
+
+	@Mock
+	private StringRedisTemplate redisTemplate;
+
+	@Mock
+	private VersionService versionService;
+
+	@Mock
+	private RedisMessageListenerContainer listenerContainer;
+
+	private TopicCatalogueService topicCatalogueService;
+
+	@BeforeEach
+	void setUp() {
+		this.topicCatalogueService = new TopicCatalogueService(this.topicRepository, this.topicToTopicDtoMapper,
+				new ObjectMapper(), this.redisTemplate, this.versionService, this.listenerContainer,
+				new SimpleMeterRegistry(), new TopicCatalogueProperty(Duration.ofSeconds(30)));
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.topicCatalogueService.shutdown();
+	}
+
+	@Test
+	void getCatalogue_loadsTopicsOnce_andSerializesThem() {
+		// given
+		UUID id = UUID.randomUUID();
+		List<Topic> topics = List.of(Topic.builder().id(id).title("Caching").build());
+		when(versionService.getVersion("topics")).thenReturn(3L);
+		when(topicRepository.findAll()).thenReturn(topics);
+		when(topicToTopicDtoMapper.topicListToTopicDtoList(topics)).thenReturn(List.of(new TopicDto(id, "Caching")));
+
+		// when
+		TopicCatalogue first = topicCatalogueService.getCatalogue();
+		TopicCatalogue second = topicCatalogueService.getCatalogue();
+
+		// then
+		assertSame(first, second);
+		assertEquals("topics-3", first.etag());
+		assertEquals("[{\"id\":\"" + id + "\",\"title\":\"Caching\"}]",
+				new String(first.json(), StandardCharsets.UTF_8));
+		verify(topicRepository, times(1)).findAll();
+	}
+
+	@Test
+	void refresh_rebuildsSnapshot_andNotifiesOtherNodes() {
+		// given
+		UUID id = UUID.randomUUID();
+		List<Topic> topics = List.of(Topic.builder().id(id).title("Sharding").build());
+		when(topicRepository.findAll()).thenReturn(List.of(), topics);
+		when(topicToTopicDtoMapper.topicListToTopicDtoList(List.of())).thenReturn(List.of());
+		when(topicToTopicDtoMapper.topicListToTopicDtoList(topics)).thenReturn(List.of(new TopicDto(id, "Sharding")));
+		topicCatalogueService.getCatalogue();
+
+		// when
+		topicCatalogueService.refresh();
+
+		// then
+		assertEquals(List.of(new TopicDto(id, "Sharding")), topicCatalogueService.getCatalogue().topics());
+		verify(redisTemplate).convertAndSend(eq("topic:catalogue:invalidation"), anyString());
+	}
+
+	@Test
+	void onMessage_rebuildsSnapshot_onlyForChangesFromOtherNodes() {
+		// given
+		when(topicRepository.findAll()).thenReturn(List.of());
+		when(topicToTopicDtoMapper.topicListToTopicDtoList(any())).thenReturn(List.of());
+		topicCatalogueService.refresh();
+		ArgumentCaptor<String> nodeId = ArgumentCaptor.forClass(String.class);
+		verify(redisTemplate).convertAndSend(eq("topic:catalogue:invalidation"), nodeId.capture());
+		byte[] channel = "topic:catalogue:invalidation".getBytes(StandardCharsets.UTF_8);
+
+		// when
+		topicCatalogueService.onMessage(new DefaultMessage(channel, nodeId.getValue().getBytes(StandardCharsets.UTF_8)),
+				null);
+		topicCatalogueService.onMessage(
+				new DefaultMessage(channel, UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8)), null);
+
+		// then
+		verify(topicRepository, times(2)).findAll();
+	}
+
+	@Test
+	void getCatalogue_buildsSnapshotOnce_forConcurrentColdCallers() throws Exception {
+		// given
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(topicRepository.findAll()).thenAnswer(invocation -> {
+			loading.countDown();
+			release.await(1, TimeUnit.SECONDS);
+			return List.of();
+		});
+		when(topicToTopicDtoMapper.topicListToTopicDtoList(any())).thenReturn(List.of());
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<TopicCatalogue> first = executor.submit(topicCatalogueService::getCatalogue);
+			loading.await(1, TimeUnit.SECONDS);
+
+			// when
+			Future<TopicCatalogue> second = executor.submit(topicCatalogueService::getCatalogue);
+			release.countDown();
+
+			// then
+			assertSame(first.get(1, TimeUnit.SECONDS), second.get(1, TimeUnit.SECONDS));
+			verify(topicRepository, times(1)).findAll();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void checkVersion_rebuildsSnapshot_whenBehindCurrentVersion() {
+		// given
+		when(versionService.getVersion("topics")).thenReturn(3L, 3L, 4L, 4L);
+		when(topicRepository.findAll()).thenReturn(List.of());
+		when(topicToTopicDtoMapper.topicListToTopicDtoList(any())).thenReturn(List.of());
+		topicCatalogueService.getCatalogue();
+
+		// when
+		topicCatalogueService.checkVersion();
+		topicCatalogueService.checkVersion();
+
+		// then
+		assertEquals("topics-4", topicCatalogueService.getCatalogue().etag());
+		verify(topicRepository, times(2)).findAll();
+	}
+
+	@Test
+	void checkVersion_doesNothing_beforeSnapshotIsBuilt() {
+		// when
+		topicCatalogueService.checkVersion();
+
+		// then
+		verify(versionService, never()).getVersion(any());
+		verify(topicRepository, never()).findAll();
+	}
+
+}
@@ -19,6 +19,7 @@ package com.syschallenge.topic;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,12 +33,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.syschallenge.shared.service.VersionService;
 import com.syschallenge.topic.dto.TopicDto;
 import com.syschallenge.topic.mapper.TopicToTopicDtoMapper;
 import com.syschallenge.topic.model.Topic;
+import com.syschallenge.topic.model.TopicCatalogue;
 import com.syschallenge.topic.payload.CreateTopicRequest;
 import com.syschallenge.topic.payload.UpdateTopicRequest;
 import com.syschallenge.topic.repository.TopicRepository;
+import com.syschallenge.topic.service.TopicCatalogueService;
 import com.syschallenge.topic.service.TopicService;
 
 /**
@@ -53,16 +57,20 @@ class TopicServiceTest {
 	@Mock
 	private TopicToTopicDtoMapper topicToTopicDtoMapper;
 
+	@Mock
+	private TopicCatalogueService topicCatalogueService;
+
+	@Mock
+	private VersionService versionService;
+
 	@InjectMocks
 	private TopicService topicService;
 
 	@Test
 	void getAll_returnsListOfTopicDtos() {
 		// given
-		List<Topic> topics = List.of(Topic.builder().id(UUID.randomUUID()).title("Load Balancing").build());
-		List<TopicDto> dtos = List.of(new TopicDto(topics.get(0).getId(), "Load Balancing"));
-		when(topicRepository.findAll()).thenReturn(topics);
-		when(topicToTopicDtoMapper.topicListToTopicDtoList(topics)).thenReturn(dtos);
+		List<TopicDto> dtos = List.of(new TopicDto(UUID.randomUUID(), "Load Balancing"));
+		when(topicCatalogueService.getCatalogue()).thenReturn(new TopicCatalogue(dtos, new byte[0], 0));
 
 		// when
 		Collection<TopicDto> result = topicService.getAll();
@@ -71,8 +79,7 @@ class TopicServiceTest {
 		assertNotNull(result);
 		assertEquals(dtos.size(), result.size());
 		assertEquals(dtos, result);
-		verify(topicRepository).findAll();
-		verify(topicToTopicDtoMapper).topicListToTopicDtoList(topics);
+		verify(topicRepository, never()).findAll();
 	}
 
 	@Test
@@ -111,6 +118,7 @@ class TopicServiceTest {
 		assertEquals(dto, result);
 		verify(topicRepository).save(any(Topic.class));
 		verify(topicToTopicDtoMapper).topicToTopicDto(savedTopic);
+		verify(topicCatalogueService).refresh();
 	}
 
 	@Test
@@ -131,6 +139,7 @@ class TopicServiceTest {
 		assertEquals(dto, result);
 		verify(topicRepository).update(any(Topic.class));
 		verify(topicToTopicDtoMapper).topicToTopicDto(updatedTopic);
+		verify(topicCatalogueService).refresh();
 	}
 
 	@Test
@@ -143,6 +152,8 @@ class TopicServiceTest {
 
 		// then
 		verify(topicRepository).deleteById(id);
+		verify(versionService).bumpVersion("topics");
+		verify(topicCatalogueService).refresh();
 	}
 
 }
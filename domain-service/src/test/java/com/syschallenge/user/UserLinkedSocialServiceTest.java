@@ -17,26 +17,34 @@
 package com.syschallenge.user;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.UUID;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.syschallenge.oauth.OAuthType;
+import com.syschallenge.user.model.User;
 import com.syschallenge.user.model.UserLinkedSocial;
 import com.syschallenge.user.model.UserLinkedSocialType;
+import com.syschallenge.user.model.UserRole;
+import com.syschallenge.user.property.UserLinkedSocialCacheProperty;
 import com.syschallenge.user.repository.UserLinkedSocialRepository;
 import com.syschallenge.user.service.UserLinkedSocialService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 /**
  * @author therepanic
  * @since 1.0.0
@@ -47,9 +55,14 @@ class UserLinkedSocialServiceTest {
 	@Mock
 	private UserLinkedSocialRepository userLinkedSocialRepository;
 
-	@InjectMocks
 	private UserLinkedSocialService userLinkedSocialService;
 
+	@BeforeEach
+	void setUp() {
+		this.userLinkedSocialService = new UserLinkedSocialService(this.userLinkedSocialRepository,
+				new SimpleMeterRegistry(), new UserLinkedSocialCacheProperty(100, Duration.ofHours(1)), false);
+	}
+
 	@Test
 	public void testCreateUserLinkedSocial() {
 		// arrange
@@ -78,30 +91,50 @@ class UserLinkedSocialServiceTest {
 	}
 
 	@Test
-	public void testGetUserIdByVerification() {
+	public void testGetUserIdByVerification_cachesLinkedUser() {
 		// arrange
 		String verification = "testVerification";
 		UUID expectedUserId = UUID.randomUUID();
-		when(userLinkedSocialRepository.findUserIdByVerification(verification)).thenReturn(expectedUserId);
+		when(userLinkedSocialRepository.findUserByTypeAndVerification(UserLinkedSocialType.GITHUB, verification))
+			.thenReturn(User.builder().id(expectedUserId).role(UserRole.DEFAULT).build());
+
+		// act
+		UUID first = userLinkedSocialService.getUserIdByVerification(OAuthType.GITHUB, verification);
+		UUID second = userLinkedSocialService.getUserIdByVerification(OAuthType.GITHUB, verification);
+
+		// assert
+		assertEquals(expectedUserId, first);
+		assertEquals(expectedUserId, second);
+		verify(userLinkedSocialRepository, times(1)).findUserByTypeAndVerification(UserLinkedSocialType.GITHUB,
+				verification);
+	}
+
+	@Test
+	public void testGetUserIdByVerification_returnsNull_whenNotLinked() {
+		// arrange
+		String verification = "unknownVerification";
 
 		// act
-		UUID userId = userLinkedSocialService.getUserIdByVerification(verification);
+		UUID userId = userLinkedSocialService.getUserIdByVerification(OAuthType.GOOGLE, verification);
 
 		// assert
-		assertEquals(expectedUserId, userId);
+		assertNull(userId);
 	}
 
 	@Test
-	public void testExistsByVerification() {
+	public void testCreate_cachesLinkForNextSignIn() {
 		// arrange
-		String verification = "existsVerification";
-		when(userLinkedSocialRepository.existsByVerification(verification)).thenReturn(true);
+		UUID userId = UUID.randomUUID();
+		when(userLinkedSocialRepository.save(any(UserLinkedSocial.class)))
+			.thenReturn(UserLinkedSocial.builder().userId(userId).build());
 
 		// act
-		boolean exists = userLinkedSocialService.existsByVerification(verification);
+		userLinkedSocialService.create(userId, OAuthType.GOOGLE, "newVerification");
+		UUID linkedUserId = userLinkedSocialService.getUserIdByVerification(OAuthType.GOOGLE, "newVerification");
 
 		// assert
-		assertTrue(exists);
+		assertEquals(userId, linkedUserId);
+		verify(userLinkedSocialRepository, never()).findUserByTypeAndVerification(any(), any());
 	}
 
 }
@@ -40,8 +40,8 @@ import com.syschallenge.user.model.UserOccupation;
 import com.syschallenge.user.model.UserRole;
 import com.syschallenge.user.payload.request.UpdateOccupationRequest;
 import com.syschallenge.user.repository.UserOccupationRepository;
-import com.syschallenge.user.repository.UserRepository;
 import com.syschallenge.user.service.UserOccupationService;
+import com.syschallenge.user.service.UserRoleService;
 
 /**
  * @author therepanic
@@ -57,7 +57,7 @@ class UserOccupationServiceTest {
 	private UserOccupationToUserOccupationDtoMapper userOccupationToUserOccupationDtoMapper;
 
 	@Mock
-	private UserRepository userRepository;
+	private UserRoleService userRoleService;
 
 	@InjectMocks
 	private UserOccupationService userOccupationService;
@@ -69,7 +69,7 @@ class UserOccupationServiceTest {
 		UpdateOccupationRequest request = new UpdateOccupationRequest("Acme Corp", "Software Engineer",
 				LocalDateTime.now(), LocalDateTime.now().plusDays(30));
 
-		when(userRepository.findRoleById(principalId)).thenReturn(UserRole.DEFAULT);
+		when(userRoleService.getRole(principalId)).thenReturn(UserRole.DEFAULT);
 
 		PermissionDeniedException exception = assertThrows(PermissionDeniedException.class,
 				() -> userOccupationService.update(id, request, principalId));
@@ -83,7 +83,7 @@ class UserOccupationServiceTest {
 		UpdateOccupationRequest request = new UpdateOccupationRequest("Acme Corp", "Software Engineer",
 				LocalDateTime.now(), LocalDateTime.now().plusDays(30));
 
-		when(userRepository.findRoleById(principalId)).thenReturn(UserRole.ADMIN);
+		when(userRoleService.getRole(principalId)).thenReturn(UserRole.ADMIN);
 
 		UserOccupation occupationToUpdate = UserOccupation.builder()
 			.userId(id)
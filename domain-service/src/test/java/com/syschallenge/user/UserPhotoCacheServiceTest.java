@@ -0,0 +1,152 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import com.syschallenge.user.property.UserPhotoCacheProperty;
+import com.syschallenge.user.service.UserPhotoCacheService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+class UserPhotoCacheServiceTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private UserPhotoCacheService userPhotoCacheService;
+
+	@BeforeEach
+	void setUp() {
+		this.meterRegistry = new SimpleMeterRegistry();
+		this.userPhotoCacheService = new UserPhotoCacheService(this.meterRegistry,
+				new UserPhotoCacheProperty(DataSize.ofKilobytes(64), DataSize.ofKilobytes(16)));
+	}
+
+	@Test
+	void get_opensPhotoOnce_whenCached() throws IOException {
+		// given
+		byte[] photo = new byte[10_000];
+		photo[0] = 1;
+		photo[photo.length - 1] = 2;
+		AtomicInteger opened = new AtomicInteger();
+
+		// when
+		Resource first = userPhotoCacheService.get("photo.png", key -> {
+			opened.incrementAndGet();
+			return new ByteArrayResource(photo);
+		});
+		Resource second = userPhotoCacheService.get("photo.png", key -> {
+			opened.incrementAndGet();
+			return new ByteArrayResource(photo);
+		});
+
+		// then
+		assertEquals(1, opened.get());
+		assertEquals(photo.length, second.contentLength());
+		assertArrayEquals(photo, readAll(first));
+		assertArrayEquals(photo, readAll(second));
+	}
+
+	@Test
+	void get_streamsPhotoWithoutCaching_whenLargerThanMaximumEntrySize() {
+		// given
+		Resource photo = new ByteArrayResource(new byte[20_000]);
+		AtomicInteger opened = new AtomicInteger();
+
+		// when
+		Resource first = userPhotoCacheService.get("large.png", key -> {
+			opened.incrementAndGet();
+			return photo;
+		});
+		userPhotoCacheService.get("large.png", key -> {
+			opened.incrementAndGet();
+			return photo;
+		});
+
+		// then
+		assertSame(photo, first);
+		assertEquals(2, opened.get());
+		assertEquals(0, meterRegistry.get("user.photo.cache.resident").gauge().value());
+	}
+
+	@Test
+	void get_opensPhotoOnce_whenMissedConcurrently() throws Exception {
+		// given
+		byte[] photo = new byte[10_000];
+		AtomicInteger opened = new AtomicInteger();
+		CountDownLatch opening = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Resource> first = executor.submit(() -> userPhotoCacheService.get("photo.png", key -> {
+				opened.incrementAndGet();
+				opening.countDown();
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return new ByteArrayResource(photo);
+			}));
+			opening.await(1, TimeUnit.SECONDS);
+
+			// when
+			Future<Resource> second = executor.submit(() -> userPhotoCacheService.get("photo.png", key -> {
+				opened.incrementAndGet();
+				return new ByteArrayResource(photo);
+			}));
+			release.countDown();
+
+			// then
+			assertArrayEquals(photo, readAll(first.get(1, TimeUnit.SECONDS)));
+			assertArrayEquals(photo, readAll(second.get(1, TimeUnit.SECONDS)));
+			assertEquals(1, opened.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static byte[] readAll(Resource resource) throws IOException {
+		try (InputStream inputStream = resource.getInputStream()) {
+			return inputStream.readAllBytes();
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.syschallenge.shared.util.ImageDownloaderUtil;
+import com.syschallenge.user.property.UserPhotoImportProperty;
+import com.syschallenge.user.service.UserPhotoImportService;
+import com.syschallenge.user.service.UserService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class UserPhotoImportServiceTest {
+
+	@Mock
+	private UserService userService;
+
+	@Mock
+	private ImageDownloaderUtil imageDownloaderUtil;
+
+	@Mock
+	private MultipartFile photo;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private UserPhotoImportService userPhotoImportService;
+
+	@BeforeEach
+	void setUp() {
+		this.meterRegistry = new SimpleMeterRegistry();
+		this.userPhotoImportService = new UserPhotoImportService(this.userService, this.imageDownloaderUtil,
+				this.meterRegistry, new UserPhotoImportProperty(1, 10), false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.userPhotoImportService.shutdown();
+	}
+
+	@Test
+	void importPhoto_uploadsDownloadedPhotoOnBehalfOfUser() {
+		// given
+		UUID userId = UUID.randomUUID();
+		when(imageDownloaderUtil.download("https://avatars.example.com/u/1")).thenReturn(photo);
+
+		// when
+		userPhotoImportService.importPhoto(userId, "https://avatars.example.com/u/1");
+
+		// then
+		verify(userService, timeout(1000)).uploadPhoto(userId, photo, userId);
+	}
+
+	@Test
+	void importPhoto_countsFailure_whenDownloadFails() throws InterruptedException {
+		// given
+		UUID userId = UUID.randomUUID();
+		UUID otherUserId = UUID.randomUUID();
+		CountDownLatch drained = new CountDownLatch(1);
+		when(imageDownloaderUtil.download("https://avatars.example.com/u/2"))
+			.thenThrow(new IllegalStateException("unreachable"));
+		when(imageDownloaderUtil.download("https://avatars.example.com/u/3")).thenAnswer(invocation -> {
+			drained.countDown();
+			return photo;
+		});
+
+		// when
+		userPhotoImportService.importPhoto(userId, "https://avatars.example.com/u/2");
+		// the single worker starts the second import only once the first one is done
+		userPhotoImportService.importPhoto(otherUserId, "https://avatars.example.com/u/3");
+
+		// then
+		assertTrue(drained.await(1, TimeUnit.SECONDS));
+		assertEquals(1.0, meterRegistry.get("user.photo.import.failed").counter().count());
+		verify(userService, never()).uploadPhoto(eq(userId), any(), any());
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.syschallenge.shared.exception.TooManyRequestsException;
+import com.syschallenge.user.property.UserPhotoProcessingProperty;
+import com.syschallenge.user.service.UserPhotoProcessingService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+class UserPhotoProcessingServiceTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private UserPhotoProcessingService userPhotoProcessingService;
+
+	@BeforeEach
+	void setUp() {
+		this.meterRegistry = new SimpleMeterRegistry();
+		this.userPhotoProcessingService = new UserPhotoProcessingService(this.meterRegistry,
+				new UserPhotoProcessingProperty(1, List.of(200)), false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.userPhotoProcessingService.shutdown();
+	}
+
+	@Test
+	void submit_returnsPreparationAndProcessesAndStoresInBackground() throws InterruptedException {
+		// given
+		CountDownLatch stored = new CountDownLatch(1);
+		List<String> threads = new CopyOnWriteArrayList<>();
+		StringBuilder result = new StringBuilder();
+
+		// when
+		String prepared = userPhotoProcessingService.submit(() -> "original", value -> {
+			threads.add(Thread.currentThread().getName());
+			return value + "-resized";
+		}, (value, processed) -> {
+			threads.add(Thread.currentThread().getName());
+			result.append(processed);
+			stored.countDown();
+		}, value -> {
+		});
+
+		// then
+		assertEquals("original", prepared);
+		assertTrue(stored.await(1, TimeUnit.SECONDS));
+		assertEquals("original-resized", result.toString());
+		assertTrue(threads.get(0).startsWith("user-photo-processing-"));
+		assertTrue(threads.get(1).startsWith("user-photo-storing-"));
+	}
+
+	@Test
+	void submit_runsRecoveryInsteadOfStoring_whenProcessingFails() throws InterruptedException {
+		// given
+		CountDownLatch recovered = new CountDownLatch(1);
+		List<String> recoveredValues = new CopyOnWriteArrayList<>();
+
+		// when
+		userPhotoProcessingService.submit(() -> "original", value -> {
+			throw new IllegalStateException("unreadable");
+		}, (value, processed) -> recoveredValues.add("stored"), value -> {
+			recoveredValues.add(value);
+			recovered.countDown();
+		});
+
+		// then
+		assertTrue(recovered.await(1, TimeUnit.SECONDS));
+		assertEquals(List.of("original"), recoveredValues);
+		assertEquals(1, meterRegistry.get("user.photo.processing.failed").counter().count());
+	}
+
+	@Test
+	void submit_throwsTooManyRequests_whenSaturated() throws InterruptedException {
+		// given
+		int capacity = Runtime.getRuntime().availableProcessors() + 1;
+		CountDownLatch release = new CountDownLatch(1);
+		for (int i = 0; i < capacity; i++) {
+			userPhotoProcessingService.submit(() -> "photo", value -> value, (value, processed) -> {
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}, value -> {
+			});
+		}
+
+		// when & then
+		assertThrows(TooManyRequestsException.class,
+				() -> userPhotoProcessingService.submit(() -> "photo", value -> value, (value, processed) -> {
+				}, value -> {
+				}));
+		assertEquals(1, meterRegistry.get("user.photo.processing.rejected").counter().count());
+		release.countDown();
+	}
+
+	@Test
+	void submit_releasesReservation_whenPreparationFails() {
+		// given
+		int capacity = Runtime.getRuntime().availableProcessors() + 1;
+
+		// when
+		for (int i = 0; i < capacity; i++) {
+			assertThrows(IllegalStateException.class, () -> userPhotoProcessingService.submit(() -> {
+				throw new IllegalStateException("storage is down");
+			}, value -> value, (value, processed) -> {
+			}, value -> {
+			}));
+		}
+
+		// then
+		assertEquals("photo", userPhotoProcessingService.submit(() -> "photo", value -> value, (value, processed) -> {
+		}, value -> {
+		}));
+	}
+
+	@Test
+	void property_rejectsEmptyOrNonPositiveVariantSizes() {
+		// when & then
+		assertThrows(IllegalArgumentException.class, () -> new UserPhotoProcessingProperty(1, List.of()));
+		assertThrows(IllegalArgumentException.class, () -> new UserPhotoProcessingProperty(1, List.of(48, 0)));
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.syschallenge.user.model.UserProfile;
+import com.syschallenge.user.model.UserRole;
+import com.syschallenge.user.property.UserProfileCacheProperty;
+import com.syschallenge.user.repository.UserRepository;
+import com.syschallenge.user.service.UserProfileService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class UserProfileServiceTest {
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private StringRedisTemplate redisTemplate;
+
+	@Mock
+	private RedisMessageListenerContainer listenerContainer;
+
+	private UserProfileService userProfileService;
+
+	@BeforeEach
+	void setUp() {
+		this.userProfileService = new UserProfileService(this.userRepository, this.redisTemplate,
+				this.listenerContainer, new SimpleMeterRegistry(),
+				new UserProfileCacheProperty(100, Duration.ofMinutes(5)), false);
+	}
+
+	@Test
+	void getProfile_loadsFromDatabaseOnce_whenNotCached() {
+		// given
+		UUID id = UUID.randomUUID();
+		UserProfile profile = new UserProfile(id, "username", "name", "photo.png", List.of(), UserRole.DEFAULT);
+		when(userRepository.findProfileById(id)).thenReturn(profile);
+
+		// when
+		UserProfile first = userProfileService.getProfile(id);
+		UserProfile second = userProfileService.getProfile(id);
+
+		// then
+		assertEquals(profile, first);
+		assertEquals(profile, second);
+		verify(userRepository, times(1)).findProfileById(id);
+	}
+
+	@Test
+	void getProfile_returnsNull_whenUserDoesNotExist() {
+		// given
+		UUID id = UUID.randomUUID();
+
+		// when
+		UserProfile profile = userProfileService.getProfile(id);
+
+		// then
+		assertNull(profile);
+	}
+
+	@Test
+	void evict_dropsCachedProfileAndNotifiesOtherNodes() {
+		// given
+		UUID id = UUID.randomUUID();
+		UserProfile updated = new UserProfile(id, "username", "name", "new-photo.png", List.of(), UserRole.DEFAULT);
+		when(userRepository.findProfileById(id))
+			.thenReturn(new UserProfile(id, "username", "name", null, List.of(), UserRole.DEFAULT), updated);
+		userProfileService.getProfile(id);
+
+		// when
+		userProfileService.evict(id);
+
+		// then
+		assertEquals(updated, userProfileService.getProfile(id));
+		verify(redisTemplate).convertAndSend("user:profile:invalidation", id.toString());
+	}
+
+	@Test
+	void onMessage_dropsCachedProfile() {
+		// given
+		UUID id = UUID.randomUUID();
+		UserProfile updated = new UserProfile(id, "username", "name", null, List.of(), UserRole.ADMIN);
+		when(userRepository.findProfileById(id))
+			.thenReturn(new UserProfile(id, "username", "name", null, List.of(), UserRole.DEFAULT), updated);
+		userProfileService.getProfile(id);
+
+		// when
+		userProfileService.onMessage(new DefaultMessage("user:profile:invalidation".getBytes(StandardCharsets.UTF_8),
+				id.toString().getBytes(StandardCharsets.UTF_8)), null);
+
+		// then
+		assertEquals(updated, userProfileService.getProfile(id));
+	}
+
+}
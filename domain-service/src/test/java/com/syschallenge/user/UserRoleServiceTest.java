@@ -0,0 +1,170 @@
+/*
+ * Copyright by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.syschallenge.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.syschallenge.user.model.UserRole;
+import com.syschallenge.user.property.UserRoleCacheProperty;
+import com.syschallenge.user.repository.UserRepository;
+import com.syschallenge.user.service.UserRoleService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author therepanic
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class UserRoleServiceTest {
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private StringRedisTemplate redisTemplate;
+
+	@Mock
+	private ValueOperations<String, String> valueOperations;
+
+	@Mock
+	private RedisMessageListenerContainer listenerContainer;
+
+	private UserRoleService userRoleService;
+
+	@BeforeEach
+	void setUp() {
+		this.userRoleService = new UserRoleService(this.userRepository, this.redisTemplate, this.listenerContainer,
+				new SimpleMeterRegistry(),
+				new UserRoleCacheProperty(100, Duration.ofMinutes(5), Duration.ofMinutes(30)), false);
+	}
+
+	@Test
+	void getRole_loadsFromDatabaseOnce_whenNotCached() {
+		// given
+		UUID id = UUID.randomUUID();
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		when(userRepository.findRoleById(id)).thenReturn(UserRole.ADMIN);
+
+		// when
+		UserRole first = userRoleService.getRole(id);
+		UserRole second = userRoleService.getRole(id);
+
+		// then
+		assertEquals(UserRole.ADMIN, first);
+		assertEquals(UserRole.ADMIN, second);
+		verify(userRepository, times(1)).findRoleById(id);
+		verify(valueOperations).set("user:role:" + id, "ADMIN", Duration.ofMinutes(30));
+	}
+
+	@Test
+	void getRole_sharesSingleLoad_betweenConcurrentMisses() throws Exception {
+		// given
+		UUID id = UUID.randomUUID();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		when(userRepository.findRoleById(id)).thenAnswer(invocation -> {
+			loading.countDown();
+			release.await();
+			return UserRole.ADMIN;
+		});
+		CompletableFuture<UserRole> first = CompletableFuture.supplyAsync(() -> userRoleService.getRole(id));
+		loading.await();
+
+		// when
+		CompletableFuture<UserRole> second = CompletableFuture.supplyAsync(() -> userRoleService.getRole(id));
+		release.countDown();
+
+		// then
+		assertEquals(UserRole.ADMIN, first.get(5, TimeUnit.SECONDS));
+		assertEquals(UserRole.ADMIN, second.get(5, TimeUnit.SECONDS));
+		verify(userRepository, times(1)).findRoleById(id);
+	}
+
+	@Test
+	void getRole_usesRedisTier_whenCachedByAnotherNode() {
+		// given
+		UUID id = UUID.randomUUID();
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		when(valueOperations.get("user:role:" + id)).thenReturn("DEFAULT");
+
+		// when
+		UserRole role = userRoleService.getRole(id);
+
+		// then
+		assertEquals(UserRole.DEFAULT, role);
+		verify(userRepository, never()).findRoleById(any());
+	}
+
+	@Test
+	void evict_dropsCachedRoleAndNotifiesOtherNodes() {
+		// given
+		UUID id = UUID.randomUUID();
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		when(userRepository.findRoleById(id)).thenReturn(UserRole.DEFAULT, UserRole.ADMIN);
+		userRoleService.getRole(id);
+
+		// when
+		userRoleService.evict(id);
+
+		// then
+		assertEquals(UserRole.ADMIN, userRoleService.getRole(id));
+		verify(redisTemplate).delete("user:role:" + id);
+		verify(redisTemplate).convertAndSend(eq("user:role:invalidation"), eq(id.toString()));
+	}
+
+	@Test
+	void onMessage_dropsNearCacheEntry() {
+		// given
+		UUID id = UUID.randomUUID();
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		when(userRepository.findRoleById(id)).thenReturn(UserRole.DEFAULT, UserRole.ADMIN);
+		userRoleService.getRole(id);
+
+		// when
+		userRoleService.onMessage(new DefaultMessage("user:role:invalidation".getBytes(StandardCharsets.UTF_8),
+				id.toString().getBytes(StandardCharsets.UTF_8)), null);
+
+		// then
+		assertEquals(UserRole.ADMIN, userRoleService.getRole(id));
+	}
+
+}
@@ -18,27 +18,55 @@ package com.syschallenge.user;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.imageio.ImageIO;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionOperations;
 
 import com.syschallenge.oauth.OAuthUserInfo;
+import com.syschallenge.shared.exception.TooManyRequestsException;
 import com.syschallenge.shared.service.FileStorageService;
 import com.syschallenge.user.model.User;
 import com.syschallenge.user.model.UserBasicInfo;
+import com.syschallenge.user.model.UserPhoto;
+import com.syschallenge.user.model.UserProfile;
 import com.syschallenge.user.model.UserRole;
-import com.syschallenge.user.payload.response.PhotoResponse;
+import com.syschallenge.user.property.UserPhotoProcessingProperty;
 import com.syschallenge.user.repository.UserBasicInfoRepository;
 import com.syschallenge.user.repository.UserPhotoRepository;
 import com.syschallenge.user.repository.UserRepository;
+import com.syschallenge.user.service.UserPhotoCacheService;
+import com.syschallenge.user.service.UserPhotoProcessingService;
+import com.syschallenge.user.service.UserProfileService;
+import com.syschallenge.user.service.UserRoleEpochService;
+import com.syschallenge.user.service.UserRoleService;
 import com.syschallenge.user.service.UserService;
 
 /**
@@ -60,6 +88,28 @@ class UserServiceTest {
 	@Mock
 	private FileStorageService storageService;
 
+	@Mock
+	private UserRoleService userRoleService;
+
+	@Mock
+	private UserRoleEpochService userRoleEpochService;
+
+	@Mock
+	private UserProfileService userProfileService;
+
+	@Mock
+	private UserPhotoCacheService userPhotoCacheService;
+
+	@Mock
+	private UserPhotoProcessingService userPhotoProcessingService;
+
+	@Spy
+	private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+	@Spy
+	private UserPhotoProcessingProperty userPhotoProcessingProperty = new UserPhotoProcessingProperty(32,
+			List.of(48, 96, 200, 400));
+
 	@InjectMocks
 	private UserService userService;
 
@@ -94,6 +144,21 @@ class UserServiceTest {
 		assertEquals("username", capturedInfo.getName());
 	}
 
+	@Test
+	public void testUpdateRole() {
+		// arrange
+		UUID id = UUID.randomUUID();
+
+		// act
+		userService.updateRole(id, UserRole.ADMIN);
+
+		// assert
+		verify(userRepository).updateRoleById(id, UserRole.ADMIN);
+		verify(userRoleService).evict(id);
+		verify(userRoleEpochService).bumpEpoch(id);
+		verify(userProfileService).evict(id);
+	}
+
 	@Test
 	public void testGetUsernameById() {
 		// arrange
@@ -122,35 +187,251 @@ class UserServiceTest {
 	}
 
 	@Test
-	public void testGetPhoto_WhenPhotoExists() {
+	public void testGetPhotoObjectKey_usesCachedProfile() {
 		// arrange
 		UUID userId = UUID.randomUUID();
-		String objectKey = "photo-key";
-		byte[] photoData = new byte[] { 1, 2, 3 };
+		when(userProfileService.getProfile(userId))
+			.thenReturn(new UserProfile(userId, "username", "name", "photo-key.png", List.of(), UserRole.DEFAULT));
 
-		when(userPhotoRepository.findObjectKeyByUserId(userId)).thenReturn(objectKey);
-		when(storageService.downloadFile("users-photo", objectKey)).thenReturn(photoData);
+		// act
+		String objectKey = userService.getPhotoObjectKey(userId);
+
+		// assert
+		assertEquals("photo-key.png", objectKey);
+		verifyNoInteractions(userPhotoRepository);
+	}
+
+	@Test
+	public void testGetPhotoObjectKey_selectsClosestVariant() {
+		// arrange
+		UUID userId = UUID.randomUUID();
+		when(userProfileService.getProfile(userId)).thenReturn(new UserProfile(userId, "username", "name",
+				"photo-key.png", List.of(48, 96, 200, 400), UserRole.DEFAULT));
+
+		// act & assert
+		assertEquals("photo-key.png", userService.getPhotoObjectKey(userId, null));
+		assertEquals("photo-key-48.png", userService.getPhotoObjectKey(userId, 40));
+		assertEquals("photo-key-96.png", userService.getPhotoObjectKey(userId, 96));
+		assertEquals("photo-key.png", userService.getPhotoObjectKey(userId, 150));
+		assertEquals("photo-key-400.png", userService.getPhotoObjectKey(userId, 1000));
+	}
+
+	@Test
+	public void testGetPhotoObjectKey_withoutVariants() {
+		// arrange
+		UUID userId = UUID.randomUUID();
+		when(userProfileService.getProfile(userId))
+			.thenReturn(new UserProfile(userId, "username", "name", "photo-key.png", List.of(), UserRole.DEFAULT));
+
+		// act & assert
+		assertEquals("photo-key.png", userService.getPhotoObjectKey(userId, 48));
+	}
+
+	@Test
+	public void testGetPhotoUrl() {
+		// arrange
+		when(storageService.generatePresignedUrl("users-photo", "photo-key.png", Duration.ofHours(1)))
+			.thenReturn("https://storage.example.com/users-photo/photo-key.png?X-Amz-Signature=abc");
 
 		// act
-		PhotoResponse response = userService.getPhoto(userId);
+		String url = userService.getPhotoUrl("photo-key.png", Duration.ofHours(1));
 
 		// assert
-		assertNotNull(response);
-		assertArrayEquals(photoData, response.photo());
-		assertEquals(objectKey, response.photoFileName());
+		assertEquals("https://storage.example.com/users-photo/photo-key.png?X-Amz-Signature=abc", url);
 	}
 
 	@Test
-	public void testGetPhoto_WhenPhotoDoesNotExist() {
+	public void testUploadPhoto_storesOriginalAndSwapsResizedInBackground() throws IOException {
 		// arrange
 		UUID userId = UUID.randomUUID();
-		when(userPhotoRepository.findObjectKeyByUserId(userId)).thenReturn(null);
+		byte[] original = createPng(800, 600);
+		MockMultipartFile photoFile = new MockMultipartFile("file", "photo.png", "image/png", original);
+		runProcessingInline();
+		when(userPhotoRepository.findByUserId(userId)).thenReturn(UserPhoto.builder()
+			.userId(userId)
+			.objectKey("previous.png")
+			.variantSizes(new Integer[] { 48, 200 })
+			.build());
+		ArgumentCaptor<byte[]> uploadedCaptor = ArgumentCaptor.forClass(byte[].class);
+		when(storageService.uploadFile(eq("users-photo"), uploadedCaptor.capture(), eq(".png")))
+			.thenReturn("original.png", "resized.png");
+		when(userPhotoRepository.replaceObjectKey(userId, "original.png", "resized.png",
+				new Integer[] { 48, 96, 200, 400 }))
+			.thenReturn(true);
+		ArgumentCaptor<byte[]> smallestCaptor = ArgumentCaptor.forClass(byte[].class);
 
 		// act
-		PhotoResponse response = userService.getPhoto(userId);
+		userService.uploadPhoto(userId, photoFile, userId);
 
 		// assert
-		assertNull(response);
+		assertArrayEquals(original, uploadedCaptor.getAllValues().get(0));
+		BufferedImage resized = ImageIO.read(new ByteArrayInputStream(uploadedCaptor.getAllValues().get(1)));
+		assertEquals(200, resized.getWidth());
+		assertEquals(150, resized.getHeight());
+		verify(storageService).putFile(eq("users-photo"), eq("resized-48.png"), smallestCaptor.capture());
+		BufferedImage smallest = ImageIO.read(new ByteArrayInputStream(smallestCaptor.getValue()));
+		assertEquals(48, smallest.getWidth());
+		assertEquals(36, smallest.getHeight());
+		verify(storageService).putFile(eq("users-photo"), eq("resized-96.png"), any());
+		verify(storageService).putFile(eq("users-photo"), eq("resized-400.png"), any());
+		verify(userPhotoRepository).updateObjectKeyByUserId("original.png", userId);
+		verify(storageService).deleteFile("users-photo", "previous.png");
+		verify(storageService).deleteFile("users-photo", "previous-48.png");
+		verify(storageService).deleteFile("users-photo", "original.png");
+		verify(userProfileService, times(2)).evict(userId);
+	}
+
+	@Test
+	public void testUploadPhoto_dropsResizedPhoto_whenReplacedInTheMeantime() throws IOException {
+		// arrange
+		UUID userId = UUID.randomUUID();
+		MockMultipartFile photoFile = new MockMultipartFile("file", "photo.png", "image/png", createPng(400, 400));
+		runProcessingInline();
+		when(storageService.uploadFile(eq("users-photo"), any(), eq(".png"))).thenReturn("original.png", "resized.png");
+		when(userPhotoRepository.replaceObjectKey(userId, "original.png", "resized.png",
+				new Integer[] { 48, 96, 200, 400 }))
+			.thenReturn(false);
+
+		// act
+		userService.uploadPhoto(userId, photoFile, userId);
+
+		// assert
+		verify(userPhotoRepository).save(any(UserPhoto.class));
+		verify(storageService).deleteFile("users-photo", "resized.png");
+		verify(storageService).deleteFile("users-photo", "resized-48.png");
+		verify(storageService).deleteFile("users-photo", "resized-400.png");
+		verify(storageService, never()).deleteFile("users-photo", "original.png");
+	}
+
+	@Test
+	public void testUploadPhoto_doesNotUpscaleVariants_whenPhotoIsSmall() throws IOException {
+		// arrange
+		UUID userId = UUID.randomUUID();
+		MockMultipartFile photoFile = new MockMultipartFile("file", "photo.png", "image/png", createPng(120, 60));
+		runProcessingInline();
+		ArgumentCaptor<byte[]> uploadedCaptor = ArgumentCaptor.forClass(byte[].class);
+		when(storageService.uploadFile(eq("users-photo"), uploadedCaptor.capture(), eq(".png")))
+			.thenReturn("original.png", "resized.png");
+		ArgumentCaptor<byte[]> largestCaptor = ArgumentCaptor.forClass(byte[].class);
+		ArgumentCaptor<byte[]> smallestCaptor = ArgumentCaptor.forClass(byte[].class);
+
+		// act
+		userService.uploadPhoto(userId, photoFile, userId);
+
+		// assert
+		BufferedImage resized = ImageIO.read(new ByteArrayInputStream(uploadedCaptor.getAllValues().get(1)));
+		assertEquals(120, resized.getWidth());
+		assertEquals(60, resized.getHeight());
+		verify(storageService).putFile(eq("users-photo"), eq("resized-400.png"), largestCaptor.capture());
+		BufferedImage largest = ImageIO.read(new ByteArrayInputStream(largestCaptor.getValue()));
+		assertEquals(120, largest.getWidth());
+		assertEquals(60, largest.getHeight());
+		verify(storageService).putFile(eq("users-photo"), eq("resized-48.png"), smallestCaptor.capture());
+		BufferedImage smallest = ImageIO.read(new ByteArrayInputStream(smallestCaptor.getValue()));
+		assertEquals(48, smallest.getWidth());
+		assertEquals(24, smallest.getHeight());
+	}
+
+	@Test
+	public void testUploadPhoto_storesNothing_whenProcessingIsSaturated() throws IOException {
+		// arrange
+		UUID userId = UUID.randomUUID();
+		MockMultipartFile photoFile = new MockMultipartFile("file", "photo.png", "image/png", createPng(400, 400));
+		when(userPhotoProcessingService.submit(any(), any(), any(), any()))
+			.thenThrow(new TooManyRequestsException("Too many photos are being processed, try again later"));
+
+		// act & assert
+		assertThrows(TooManyRequestsException.class, () -> userService.uploadPhoto(userId, photoFile, userId));
+		verify(storageService, never()).uploadFile(any(), any(), any());
+	}
+
+	@Test
+	public void testUploadPhoto_rejectsUnreadableImage() {
+		// arrange
+		UUID userId = UUID.randomUUID();
+		MockMultipartFile photoFile = new MockMultipartFile("file", "photo.png", "image/png",
+				"not an image".getBytes());
+
+		// act & assert
+		assertThrows(IllegalArgumentException.class, () -> userService.uploadPhoto(userId, photoFile, userId));
+		verify(userPhotoProcessingService, never()).submit(any(), any(), any(), any());
+		verify(storageService, never()).uploadFile(any(), any(), any());
+	}
+
+	@Test
+	public void testUploadPhoto_rejectsImageOfAnotherFormat() throws IOException {
+		// arrange
+		UUID userId = UUID.randomUUID();
+		MockMultipartFile photoFile = new MockMultipartFile("file", "photo.jpg", "image/jpeg", createPng(400, 400));
+
+		// act & assert
+		assertThrows(IllegalArgumentException.class, () -> userService.uploadPhoto(userId, photoFile, userId));
+		verify(storageService, never()).uploadFile(any(), any(), any());
+	}
+
+	@Test
+	public void testUploadPhoto_revertsToPreviousPhoto_whenProcessingFails() throws IOException {
+		// arrange
+		UUID userId = UUID.randomUUID();
+		MockMultipartFile photoFile = new MockMultipartFile("file", "photo.png", "image/png", createPng(400, 400));
+		runProcessingInline();
+		Integer[] previousVariantSizes = { 48, 200 };
+		when(userPhotoRepository.findByUserId(userId)).thenReturn(UserPhoto.builder()
+			.userId(userId)
+			.objectKey("previous.png")
+			.variantSizes(previousVariantSizes)
+			.build());
+		when(storageService.uploadFile(eq("users-photo"), any(), eq(".png"))).thenReturn("original.png", "resized.png");
+		doThrow(new RuntimeException("storage is down")).when(storageService)
+			.putFile(eq("users-photo"), eq("resized-48.png"), any());
+		when(userPhotoRepository.replaceObjectKey(userId, "original.png", "previous.png", previousVariantSizes))
+			.thenReturn(true);
+
+		// act & assert
+		assertThrows(RuntimeException.class, () -> userService.uploadPhoto(userId, photoFile, userId));
+		verify(storageService).deleteFile("users-photo", "original.png");
+		verify(storageService).deleteFile("users-photo", "resized.png");
+		verify(storageService, never()).deleteFile("users-photo", "previous.png");
+		verify(userProfileService, times(2)).evict(userId);
+	}
+
+	@Test
+	public void testUploadPhoto_deletesStoredPhoto_whenProcessingFailsWithoutPreviousPhoto() throws IOException {
+		// arrange
+		UUID userId = UUID.randomUUID();
+		MockMultipartFile photoFile = new MockMultipartFile("file", "photo.png", "image/png", createPng(400, 400));
+		runProcessingInline();
+		when(storageService.uploadFile(eq("users-photo"), any(), eq(".png"))).thenReturn("original.png")
+			.thenThrow(new RuntimeException("storage is down"));
+		when(userPhotoRepository.deleteByUserIdAndObjectKey(userId, "original.png")).thenReturn(true);
+
+		// act & assert
+		assertThrows(RuntimeException.class, () -> userService.uploadPhoto(userId, photoFile, userId));
+		verify(userPhotoRepository).deleteByUserIdAndObjectKey(userId, "original.png");
+		verify(storageService).deleteFile("users-photo", "original.png");
+	}
+
+	@SuppressWarnings("unchecked")
+	private void runProcessingInline() {
+		when(userPhotoProcessingService.submit(any(), any(), any(), any())).thenAnswer(invocation -> {
+			Object prepared = invocation.getArgument(0, Supplier.class).get();
+			Object processed;
+			try {
+				processed = invocation.getArgument(1, Function.class).apply(prepared);
+			}
+			catch (RuntimeException e) {
+				invocation.getArgument(3, Consumer.class).accept(prepared);
+				throw e;
+			}
+			invocation.getArgument(2, BiConsumer.class).accept(prepared, processed);
+			return prepared;
+		});
+	}
+
+	private static byte[] createPng(int width, int height) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", outputStream);
+		return outputStream.toByteArray();
 	}
 
 }